@@ -0,0 +1,123 @@
+package com.coffeequeue.benchmark;
+
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import com.coffeequeue.repository.InMemoryOrderStore;
+import com.coffeequeue.repository.OrderArchive;
+import com.coffeequeue.repository.OrderJournal;
+import com.coffeequeue.repository.OrderWriteBehind;
+import com.coffeequeue.service.BaristaAssignmentEngine;
+import com.coffeequeue.service.DashboardAggregator;
+import com.coffeequeue.service.EtaEngine;
+import com.coffeequeue.service.FairnessTracker;
+import com.coffeequeue.service.LoggingMessagingProvider;
+import com.coffeequeue.service.MenuService;
+import com.coffeequeue.service.NotificationDispatcher;
+import com.coffeequeue.service.PriorityAgingEngine;
+import com.coffeequeue.service.PriorityScorer;
+import com.coffeequeue.service.QueueEventPublisher;
+import com.coffeequeue.service.QueueMetrics;
+import com.coffeequeue.service.QueueService;
+import com.coffeequeue.service.TimeoutAlertEngine;
+import com.coffeequeue.service.WaitTimeTracker;
+import com.coffeequeue.service.WaitingQueue;
+import com.coffeequeue.service.WhatsAppNotificationService;
+import com.coffeequeue.service.policy.EarliestDeadlineFirstPolicy;
+import com.coffeequeue.service.policy.FifoPolicy;
+import com.coffeequeue.service.policy.ShortestPrepFirstPolicy;
+import com.coffeequeue.service.policy.WeightedPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires a {@link QueueService} against the in-memory store, outside Spring.
+ * STOMP events are serialized as in production but sent to a no-op channel.
+ */
+final class QueueEngineFixture {
+
+    private static final String[] DRINKS = {"cold-brew", "espresso", "americano", "cappuccino", "latte", "mocha"};
+    private static final String[] CUSTOMER_TYPES = {"New", "Regular", "VIP Premium"};
+
+    final QueueService queueService;
+    final PriorityAgingEngine agingEngine;
+    final MenuService menuService;
+    final FairnessTracker fairnessTracker;
+    final TimeoutAlertEngine timeoutAlerts;
+    final List<String> orderIds = new ArrayList<>();
+
+    private QueueEngineFixture(Clock clock, List<String> baristaIds, boolean autoDispatch, String policy) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(new ObjectMapper().registerModule(new JavaTimeModule()));
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((MessageChannel) (message, timeout) -> true);
+        messagingTemplate.setMessageConverter(converter);
+
+        menuService = new MenuService(new ObjectMapper());
+        PriorityScorer priorityScorer = new PriorityScorer(List.of(new WeightedPolicy(), new ShortestPrepFirstPolicy(),
+            new EarliestDeadlineFirstPolicy(), new FifoPolicy()), policy);
+        WaitingQueue waitingQueue = new WaitingQueue(priorityScorer);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        fairnessTracker = new FairnessTracker(registry, 3, true);
+        timeoutAlerts = new TimeoutAlertEngine(messagingTemplate, registry, clock, 1000, 6);
+        BaristaAssignmentEngine assignmentEngine = new BaristaAssignmentEngine(waitingQueue, fairnessTracker, clock,
+            baristaIds, autoDispatch);
+        QueueEventPublisher publisher = new QueueEventPublisher(messagingTemplate, waitingQueue, assignmentEngine);
+        agingEngine = new PriorityAgingEngine(waitingQueue, publisher, clock);
+        InMemoryOrderStore store = new InMemoryOrderStore();
+        OrderJournal journal = new OrderJournal(store, new ObjectMapper(), false, "target/journal", 10_000);
+        // Never opened: stays empty, as with retention disabled
+        OrderArchive archive = new OrderArchive(new ObjectMapper(), clock, "target/archive");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(new LoggingMessagingProvider(), 1000, 100, 4, 1000, 5);
+
+        queueService = new QueueService(menuService, new WhatsAppNotificationService(dispatcher), store,
+            waitingQueue, priorityScorer, agingEngine, publisher, new DashboardAggregator(clock), assignmentEngine, journal,
+            archive, new OrderWriteBehind("async", 200, 10, 2000, 1000),
+            new QueueMetrics(registry, waitingQueue, menuService, assignmentEngine),
+            new WaitTimeTracker(), new EtaEngine(waitingQueue, assignmentEngine),
+            fairnessTracker, timeoutAlerts, clock);
+    }
+
+    /**
+     * Build an empty engine on the given clock and baristas, scheduling with the named policy
+     */
+    static QueueEngineFixture empty(Clock clock, List<String> baristaIds, boolean autoDispatch, String policy) {
+        return new QueueEngineFixture(clock, baristaIds, autoDispatch, policy);
+    }
+
+    /**
+     * Build an engine holding {@code orderCount} orders, of which one in ten is still waiting.
+     */
+    static QueueEngineFixture withOrders(int orderCount) {
+        QueueEngineFixture fixture = empty(Clock.systemDefaultZone(), List.of("barista", "barista2"), false,
+            WeightedPolicy.NAME);
+        for (int i = 0; i < orderCount; i++) {
+            Order order = fixture.createOrder(i);
+            fixture.orderIds.add(order.getId());
+            if (i % 10 != 0) {
+                fixture.queueService.completeOrder(order.getId());
+            }
+        }
+        return fixture;
+    }
+
+    Order createOrder(int seed) {
+        String customerType = CUSTOMER_TYPES[seed % CUSTOMER_TYPES.length];
+        return queueService.createOrder(items(seed), "Regular".equals(customerType), customerType, null);
+    }
+
+    static List<OrderItem> items(int seed) {
+        List<OrderItem> items = new ArrayList<>(2);
+        items.add(new OrderItem(DRINKS[seed % DRINKS.length], 1, null, 0));
+        if (seed % 3 == 0) {
+            items.add(new OrderItem(DRINKS[(seed / 3) % DRINKS.length], 2, null, 0));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,155 @@
+package com.coffeequeue.benchmark;
+
+import com.coffeequeue.dto.OrderEta;
+import com.coffeequeue.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link com.coffeequeue.service.QueueService} against the
+ * in-memory store at 1k/10k/100k orders of history (10% still waiting).
+ *
+ * Each operation has a single-threaded variant and a contended variant run
+ * on 4 threads sharing one engine. Run through the {@code benchmark} Maven
+ * profile, which enables the GC profiler for allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int orderCount;
+
+    private QueueEngineFixture engine;
+    private Order scoredOrder;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Rebuilt per iteration so orders created by the write benchmarks don't accumulate
+        engine = QueueEngineFixture.withOrders(orderCount);
+        scoredOrder = engine.queueService.getOrderById(engine.orderIds.get(0));
+    }
+
+    /** Order created outside the measured region, completed by the completeOrder benchmarks */
+    @State(Scope.Thread)
+    public static class PendingOrder {
+        String orderId;
+
+        @Setup(Level.Invocation)
+        public void create(QueueServiceBenchmark benchmark) {
+            orderId = benchmark.engine.createOrder(ThreadLocalRandom.current().nextInt(1000)).getId();
+        }
+    }
+
+    @Benchmark
+    public double calculatePriorityScore() {
+        return engine.queueService.calculatePriorityScore(scoredOrder, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<Order> getWaitingOrders() {
+        return engine.queueService.getWaitingOrders();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Order> getWaitingOrdersContended() {
+        return engine.queueService.getWaitingOrders();
+    }
+
+    @Benchmark
+    public Order getOrderById() {
+        return engine.queueService.getOrderById(randomOrderId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order getOrderByIdContended() {
+        return engine.queueService.getOrderById(randomOrderId());
+    }
+
+    @Benchmark
+    public OrderEta getEta() {
+        return engine.queueService.getEta(randomOrderId());
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return engine.createOrder(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order createOrderContended() {
+        return engine.createOrder(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    public Order completeOrder(PendingOrder pending) {
+        return engine.queueService.completeOrder(pending.orderId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order completeOrderContended(PendingOrder pending) {
+        return engine.queueService.completeOrder(pending.orderId);
+    }
+
+    @Benchmark
+    public Map<String, Object> getQueueStats() {
+        return engine.queueService.getQueueStats();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void mixedDashboardTrafficContended(Blackhole blackhole) {
+        // Barista-tablet mix: mostly queue reads, occasional lookup and stats
+        int dice = ThreadLocalRandom.current().nextInt(10);
+        if (dice < 7) {
+            blackhole.consume(engine.queueService.getWaitingOrders());
+        } else if (dice < 9) {
+            blackhole.consume(engine.queueService.getOrderById(randomOrderId()));
+        } else {
+            blackhole.consume(engine.queueService.getQueueStats());
+        }
+    }
+
+    private String randomOrderId() {
+        return engine.orderIds.get(ThreadLocalRandom.current().nextInt(engine.orderIds.size()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(QueueServiceBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
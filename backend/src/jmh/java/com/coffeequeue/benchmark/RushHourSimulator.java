@@ -0,0 +1,312 @@
+package com.coffeequeue.benchmark;
+
+import com.coffeequeue.model.Barista;
+import com.coffeequeue.model.Drink;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import com.coffeequeue.service.PriorityScorer;
+import com.coffeequeue.service.QueueService;
+import com.coffeequeue.service.policy.WeightedPolicy;
+import org.HdrHistogram.Histogram;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Offline discrete-event simulation of a trading day against the real
+ * {@link QueueService}: scoring, aging, barista assignment and wait tracking
+ * run as in production, but on a virtual clock that jumps from one event to
+ * the next, so a full day replays in seconds.
+ *
+ * Arrivals are a Poisson process whose rate peaks in a morning rush, and each
+ * order's drinks are sampled by the menu's {@code Drink.frequency}. Baristas
+ * take orders as they free up and finish each one exactly its menu prep time
+ * after starting it.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec@simulate -Dsim.args="--baristas=3 --rate=40"
+ */
+public final class RushHourSimulator {
+
+    private static final String[] CUSTOMER_TYPES = {"New", "Regular", "VIP Premium"};
+    private static final double[] CUSTOMER_TYPE_CUMULATIVE = {0.50, 0.85, 1.00};
+    private static final double SECOND_ITEM_PROBABILITY = 0.25;
+    private static final double RUSH_SIGMA_MINUTES = 45;
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+
+    private enum EventType { ARRIVAL, COMPLETION, SWEEP, SAMPLE }
+
+    private record Event(long at, long sequence, EventType type, String orderId) {}
+
+    /** Clock the simulation moves by hand */
+    private static final class VirtualClock extends Clock {
+        private final ZoneId zone;
+        private Instant instant;
+
+        private VirtualClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override public ZoneId getZone() { return zone; }
+        @Override public Clock withZone(ZoneId zone) { return new VirtualClock(instant, zone); }
+        @Override public Instant instant() { return instant; }
+    }
+
+    /** Arrivals, completions and queue-length samples within one report period */
+    private static final class Period {
+        int arrivals;
+        int completed;
+        long queueLengthSum;
+        int samples;
+        int maxQueueLength;
+    }
+
+    // Options
+    private final int baristas;
+    private final double ratePerHour;
+    private final double rushMultiplier;
+    private final LocalTime open;
+    private final LocalTime rushAt;
+    private final int openHours;
+    private final long sweepMillis;
+    private final int periodMinutes;
+    private final String policy;
+    private final SplittableRandom random;
+
+    private final VirtualClock clock;
+    private final QueueEngineFixture engine;
+    private final String[] drinks;
+    private final double[] drinkCumulative;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>(
+        (a, b) -> a.at != b.at ? Long.compare(a.at, b.at) : Long.compare(a.sequence, b.sequence));
+    private long sequence;
+    private final long openMillis;
+    private final long closeMillis;
+    private final long rushMillis;
+
+    private final HashSet<String> started = new HashSet<>();
+    private final Histogram readyWaits = new Histogram(Duration.ofDays(1).toSeconds(), 2);
+    private final Histogram startWaits = new Histogram(Duration.ofDays(1).toSeconds(), 2);
+    private final TreeMap<Long, Period> periods = new TreeMap<>();
+    private int placed;
+    private int completed;
+    private int timeouts;
+    private int alerts;
+    private long lastCompletionMillis;
+
+    private RushHourSimulator(Map<String, String> options) {
+        baristas = Integer.parseInt(options.getOrDefault("baristas", "3"));
+        ratePerHour = Double.parseDouble(options.getOrDefault("rate", "20"));
+        rushMultiplier = Double.parseDouble(options.getOrDefault("rush", "2.5"));
+        open = LocalTime.parse(options.getOrDefault("open", "07:00"));
+        rushAt = LocalTime.parse(options.getOrDefault("rush-at", "08:30"));
+        openHours = Integer.parseInt(options.getOrDefault("hours", "12"));
+        sweepMillis = Long.parseLong(options.getOrDefault("sweep-ms", "5000"));
+        periodMinutes = Integer.parseInt(options.getOrDefault("period-minutes", "60"));
+        policy = options.getOrDefault("policy", WeightedPolicy.NAME);
+        random = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = LocalDate.now();
+        openMillis = day.atTime(open).atZone(zone).toInstant().toEpochMilli();
+        closeMillis = openMillis + openHours * HOUR_MILLIS;
+        rushMillis = day.atTime(rushAt).atZone(zone).toInstant().toEpochMilli();
+        clock = new VirtualClock(Instant.ofEpochMilli(openMillis), zone);
+
+        List<String> baristaIds = IntStream.rangeClosed(1, baristas).mapToObj(i -> "barista" + i).toList();
+        engine = QueueEngineFixture.empty(clock, baristaIds, true, policy);
+
+        Map<String, Drink> menu = engine.menuService.getMenu();
+        drinks = menu.keySet().toArray(new String[0]);
+        drinkCumulative = new double[drinks.length];
+        double total = menu.values().stream().mapToDouble(Drink::getFrequency).sum();
+        double running = 0;
+        for (int i = 0; i < drinks.length; i++) {
+            running += menu.get(drinks[i]).getFrequency() / total;
+            drinkCumulative[i] = running;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new RushHourSimulator(options).run();
+    }
+
+    private void run() {
+        long wallStart = System.nanoTime();
+        scheduleNextArrival(openMillis);
+        schedule(openMillis + sweepMillis, EventType.SWEEP, null);
+        schedule(openMillis, EventType.SAMPLE, null);
+
+        Event event;
+        while ((event = events.poll()) != null) {
+            clock.instant = Instant.ofEpochMilli(event.at);
+            switch (event.type) {
+                case ARRIVAL -> arrive(event.at);
+                case COMPLETION -> complete(event.orderId, event.at);
+                case SWEEP -> {
+                    engine.agingEngine.sweep(LocalDateTime.now(clock));
+                    alerts += engine.timeoutAlerts.advance(LocalDateTime.now(clock));
+                    if (keepRunning(event.at)) schedule(event.at + sweepMillis, EventType.SWEEP, null);
+                }
+                case SAMPLE -> {
+                    sample(event.at);
+                    if (keepRunning(event.at)) schedule(event.at + MINUTE_MILLIS, EventType.SAMPLE, null);
+                }
+            }
+        }
+        report(Duration.ofNanos(System.nanoTime() - wallStart));
+    }
+
+    // Events keep coming until the doors are shut and the last order is out
+    private boolean keepRunning(long at) {
+        return at < closeMillis || completed < placed;
+    }
+
+    private void arrive(long at) {
+        String customerType = pick(CUSTOMER_TYPES, CUSTOMER_TYPE_CUMULATIVE);
+        engine.queueService.createOrder(sampleItems(), "Regular".equals(customerType), customerType, null);
+        placed++;
+        period(at).arrivals++;
+        scheduleStarts();
+        scheduleNextArrival(at);
+    }
+
+    private void complete(String orderId, long at) {
+        Order order = engine.queueService.completeOrder(orderId);
+        completed++;
+        lastCompletionMillis = at;
+        period(at).completed++;
+        long readySeconds = Duration.between(order.getArrivalTime(), order.getCompletionTime()).toSeconds();
+        readyWaits.recordValue(readySeconds);
+        startWaits.recordValue(Duration.between(order.getArrivalTime(), order.getStartTime()).toSeconds());
+        if (readySeconds >= PriorityScorer.URGENT_WAIT_MINUTES * 60) {
+            timeouts++;
+        }
+        // completeOrder hands the freed barista their next order
+        scheduleStarts();
+    }
+
+    private void sample(long at) {
+        int length = engine.queueService.getWaitingOrders().size();
+        Period period = period(at);
+        period.queueLengthSum += length;
+        period.samples++;
+        period.maxQueueLength = Math.max(period.maxQueueLength, length);
+    }
+
+    // Orders that baristas have just picked up finish one prep time later
+    private void scheduleStarts() {
+        for (Barista barista : engine.queueService.getBaristas()) {
+            Order order = barista.getCurrentOrder();
+            if (order != null && started.add(order.getId())) {
+                long start = order.getStartTime().atZone(clock.getZone()).toInstant().toEpochMilli();
+                schedule(start + order.getTotalPrepTime() * MINUTE_MILLIS, EventType.COMPLETION, order.getId());
+            }
+        }
+    }
+
+    /**
+     * Next arrival of a Poisson process whose rate varies over the day, by
+     * thinning: candidates come at the peak rate and are kept in proportion
+     * to the rate at their time.
+     */
+    private void scheduleNextArrival(long after) {
+        double peakPerMilli = ratePerHour * Math.max(1.0, rushMultiplier) / HOUR_MILLIS;
+        long at = after;
+        while (true) {
+            at += (long) Math.ceil(-Math.log(1 - random.nextDouble()) / peakPerMilli);
+            if (at >= closeMillis) return;
+            if (random.nextDouble() * ratePerHour * Math.max(1.0, rushMultiplier) <= ratePerHour(at)) {
+                schedule(at, EventType.ARRIVAL, null);
+                return;
+            }
+        }
+    }
+
+    private double ratePerHour(long at) {
+        double minutesFromRush = (at - rushMillis) / (double) MINUTE_MILLIS;
+        double rush = Math.exp(-0.5 * Math.pow(minutesFromRush / RUSH_SIGMA_MINUTES, 2));
+        return ratePerHour * (1 + (rushMultiplier - 1) * rush);
+    }
+
+    private List<OrderItem> sampleItems() {
+        List<OrderItem> items = new ArrayList<>(2);
+        items.add(new OrderItem(pick(drinks, drinkCumulative), 1, null, 0));
+        if (random.nextDouble() < SECOND_ITEM_PROBABILITY) {
+            items.add(new OrderItem(pick(drinks, drinkCumulative), 1, null, 0));
+        }
+        return items;
+    }
+
+    // Weighted choice by running totals of the weights, ending at 1
+    private String pick(String[] values, double[] cumulative) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < values.length; i++) {
+            if (roll < cumulative[i]) return values[i];
+        }
+        return values[values.length - 1];
+    }
+
+    private void schedule(long at, EventType type, String orderId) {
+        events.add(new Event(at, sequence++, type, orderId));
+    }
+
+    private Period period(long at) {
+        long index = (at - openMillis) / (periodMinutes * MINUTE_MILLIS);
+        return periods.computeIfAbsent(index, i -> new Period());
+    }
+
+    private void report(Duration wallTime) {
+        double simulatedHours = Math.max(lastCompletionMillis - openMillis, 1) / (double) HOUR_MILLIS;
+        System.out.printf("%nRush-hour simulation: %d baristas, %.0f orders/h off-peak, x%.1f rush at %s, open %s for %dh, %s policy%n",
+            baristas, ratePerHour, rushMultiplier, rushAt, open, openHours, policy);
+        System.out.printf("Replayed %.1f simulated hours in %d ms%n%n", simulatedHours, wallTime.toMillis());
+        System.out.printf("Orders placed %d, completed %d, throughput %.1f orders/h%n",
+            placed, completed, completed / simulatedHours);
+        System.out.printf("Wait to ready (min): p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+            minutes(readyWaits, 50), minutes(readyWaits, 90), minutes(readyWaits, 99),
+            readyWaits.getMaxValue() / 60.0);
+        System.out.printf("Wait to start (min): p50 %.1f  p90 %.1f  p99 %.1f%n",
+            minutes(startWaits, 50), minutes(startWaits, 90), minutes(startWaits, 99));
+        System.out.printf("Timeouts (ready after %d+ min): %d (%.1f%%)%n", PriorityScorer.URGENT_WAIT_MINUTES,
+            timeouts, completed > 0 ? 100.0 * timeouts / completed : 0.0);
+        System.out.printf("Fairness: score %.1f, max %d skips per order%n",
+            engine.fairnessTracker.fairnessScore(), engine.fairnessTracker.getMaxSkips());
+        System.out.printf("Wait alerts raised: %d%n%n", alerts);
+
+        System.out.printf("%-7s %8s %10s %10s %10s%n", "From", "Arrived", "Completed", "Avg queue", "Max queue");
+        for (Map.Entry<Long, Period> entry : periods.entrySet()) {
+            Period period = entry.getValue();
+            LocalTime from = open.plusMinutes(entry.getKey() * periodMinutes);
+            System.out.printf("%-7s %8d %10d %10.1f %10d%n", from, period.arrivals, period.completed,
+                period.samples > 0 ? (double) period.queueLengthSum / period.samples : 0.0, period.maxQueueLength);
+        }
+    }
+
+    private static double minutes(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() > 0 ? histogram.getValueAtPercentile(percentile) / 60.0 : 0.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.coffeequeue.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Time source of the queue engine. The rush-hour simulator swaps in a
+ * virtual clock to replay a day in seconds.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,40 @@
+package com.coffeequeue.config;
+
+import com.coffeequeue.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+/**
+ * Creates the indexes declared on {@link Order} once the app is up.
+ *
+ * Spring's auto-index-creation runs while the MongoTemplate bean is built and
+ * aborts startup if Mongo is unreachable, which would defeat the in-memory
+ * fallback. Here a missing server only logs a warning.
+ */
+@Configuration
+@Slf4j
+public class MongoIndexConfig {
+
+    @Autowired(required = false)
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (mongoTemplate == null) return;
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Order.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Order.class)
+                .forEach(indexOps::ensureIndex);
+            log.info("MongoDB indexes ensured for orders");
+        } catch (Exception e) {
+            log.warn("MongoDB unavailable, skipping index creation: {}", e.getMessage());
+        }
+    }
+}
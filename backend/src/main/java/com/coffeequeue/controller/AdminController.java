@@ -1,19 +1,32 @@
 package com.coffeequeue.controller;
 
+import com.coffeequeue.dto.OrderPage;
+import com.coffeequeue.model.MenuSnapshot;
 import com.coffeequeue.model.Order;
 import com.coffeequeue.repository.OrderRepository;
+import com.coffeequeue.repository.OrderWriteBehind;
+import com.coffeequeue.service.DashboardAggregator;
 import com.coffeequeue.service.MenuService;
+import com.coffeequeue.service.NotificationDispatcher;
+import com.coffeequeue.service.OrderExporter;
+import com.coffeequeue.service.PolicyShadowEvaluator;
 import com.coffeequeue.service.QueueService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.time.LocalDate;
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/admin")
@@ -27,97 +40,147 @@ public class AdminController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private DashboardAggregator dashboardAggregator;
+
+    @Autowired
+    private OrderExporter orderExporter;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private OrderWriteBehind orderWriteBehind;
+
+    @Autowired
+    private PolicyShadowEvaluator policyShadowEvaluator;
+
     /**
      * Get dashboard stats: revenue, orders count, avg order value
      */
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboard() {
-        List<Order> allOrders = queueService.getAllOrders();
-        
-        // Today's orders
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        List<Order> todayOrders = allOrders.stream()
-            .filter(o -> o.getArrivalTime() != null && o.getArrivalTime().isAfter(startOfDay))
-            .collect(Collectors.toList());
-        
-        long todayCompleted = todayOrders.stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED)
-            .count();
-        
-        long todayWaiting = todayOrders.stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.WAITING)
-            .count();
-
-        // Revenue estimation (based on item count * avg price)
-        double todayRevenue = todayOrders.stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED)
-            .flatMapToInt(o -> o.getItems().stream().mapToInt(i -> i.getQuantity() * 175))
-            .sum();
-
-        double avgOrderValue = todayCompleted > 0 ? todayRevenue / todayCompleted : 0;
-
-        // Revenue by hour (for chart)
-        Map<Integer, Double> hourlyRevenue = new TreeMap<>();
-        for (int h = 6; h <= 22; h++) hourlyRevenue.put(h, 0.0);
-        todayOrders.stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED && o.getArrivalTime() != null)
-            .forEach(o -> {
-                int hour = o.getArrivalTime().getHour();
-                double orderValue = o.getItems().stream().mapToInt(i -> i.getQuantity() * 175).sum();
-                hourlyRevenue.merge(hour, orderValue, Double::sum);
-            });
-
-        // Popular items
-        Map<String, Integer> itemCounts = new HashMap<>();
-        allOrders.forEach(o -> o.getItems().forEach(i -> 
-            itemCounts.merge(i.getDrinkType(), i.getQuantity(), Integer::sum)
-        ));
-        List<Map<String, Object>> popularItems = itemCounts.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(6)
-            .map(e -> Map.<String, Object>of("name", e.getKey(), "count", e.getValue()))
-            .collect(Collectors.toList());
-
-        return ResponseEntity.ok(Map.of(
-            "todayOrders", todayOrders.size(),
-            "todayCompleted", todayCompleted,
-            "todayWaiting", todayWaiting,
-            "todayRevenue", todayRevenue,
-            "avgOrderValue", Math.round(avgOrderValue * 100.0) / 100.0,
-            "totalOrders", allOrders.size(),
-            "hourlyRevenue", hourlyRevenue,
-            "popularItems", popularItems
-        ));
+        return ResponseEntity.ok(dashboardAggregator.getDashboard());
     }
 
     /**
-     * Get all orders (paginated, filterable)
+     * Order history, paged and filtered like {@code GET /api/orders}
      */
     @GetMapping("/orders")
     public ResponseEntity<List<Order>> getOrderHistory(
-        @RequestParam(required = false) String status
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
     ) {
-        List<Order> orders = queueService.getAllOrders();
-        if (status != null && !status.isEmpty()) {
-            Order.OrderStatus filterStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-            orders = orders.stream()
-                .filter(o -> o.getStatus() == filterStatus)
-                .collect(Collectors.toList());
+        OrderPage page;
+        try {
+            Order.OrderStatus filterStatus = status != null && !status.isEmpty()
+                ? Order.OrderStatus.valueOf(status.toUpperCase())
+                : null;
+            page = queueService.getOrderHistory(filterStatus, from, to, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        // Sort newest first
-        orders.sort((a, b) -> {
-            if (a.getArrivalTime() == null) return 1;
-            if (b.getArrivalTime() == null) return -1;
-            return b.getArrivalTime().compareTo(a.getArrivalTime());
-        });
-        return ResponseEntity.ok(orders);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(QueueController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getOrders());
+    }
+
+    /**
+     * Stream order history as NDJSON (default) or CSV for analytics, with the
+     * same filters as the history. 503 while too many exports are running.
+     */
+    @GetMapping("/orders/export")
+    public WebAsyncTask<Void> exportOrders(
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        HttpServletResponse response
+    ) throws IOException {
+        OrderExporter.Format exportFormat;
+        Order.OrderStatus filterStatus;
+        try {
+            exportFormat = OrderExporter.Format.parse(format);
+            filterStatus = status != null && !status.isEmpty()
+                ? Order.OrderStatus.valueOf(status.toUpperCase())
+                : null;
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+        // A null task leaves the response as set here
+        WebAsyncTask<Void> export = orderExporter.open(exportFormat, filterStatus, from, to, response.getOutputStream());
+        if (export == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+            return null;
+        }
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"orders." + exportFormat.getExtension() + "\"");
+        return export;
     }
 
     /**
      * Get menu for admin management
      */
     @GetMapping("/menu")
-    public ResponseEntity<Map<String, Object>> getMenuForAdmin() {
-        return ResponseEntity.ok(Map.of("menu", menuService.getMenu()));
+    public ResponseEntity<byte[]> getMenuForAdmin(WebRequest request) {
+        MenuSnapshot menu = menuService.getSnapshot();
+        if (request.checkNotModified(menu.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .body(menu.getJson());
+    }
+
+    /**
+     * Get notification pipeline stats and dead-lettered messages
+     */
+    @GetMapping("/notifications")
+    public ResponseEntity<Map<String, Object>> getNotificationStatus() {
+        return ResponseEntity.ok(Map.of(
+            "stats", notificationDispatcher.getStats(),
+            "deadLetters", notificationDispatcher.getDeadLetters()
+        ));
+    }
+
+    /**
+     * Get order write-behind stats: durability mode, pending writes and flush lag
+     */
+    @GetMapping("/persistence")
+    public ResponseEntity<Map<String, Object>> getPersistenceStatus() {
+        return ResponseEntity.ok(orderWriteBehind.getStats());
+    }
+
+    /**
+     * Get the active scheduling policy and how each policy would order the current queue
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<Map<String, Object>> getPolicies() {
+        return ResponseEntity.ok(Map.of(
+            "active", queueService.getActivePolicy(),
+            "comparison", policyShadowEvaluator.evaluate()
+        ));
+    }
+
+    /**
+     * Switch the active scheduling policy; waiting orders are re-scored at once
+     */
+    @PutMapping("/policies/active")
+    public ResponseEntity<Map<String, Object>> setActivePolicy(@RequestBody Map<String, String> request) {
+        try {
+            queueService.switchPolicy(request.get("policy"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return getPolicies();
     }
 }
@@ -0,0 +1,41 @@
+package com.coffeequeue.controller;
+
+import com.coffeequeue.dto.AlertResponse;
+import com.coffeequeue.service.TimeoutAlertEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/alerts")
+@Slf4j
+@CrossOrigin(origins = "*")
+public class AlertController {
+
+    @Autowired
+    private TimeoutAlertEngine timeoutAlerts;
+
+    /**
+     * Get unacknowledged wait-time alerts, oldest first
+     */
+    @GetMapping
+    public ResponseEntity<List<AlertResponse>> getOpenAlerts() {
+        return ResponseEntity.ok(timeoutAlerts.getOpenAlerts());
+    }
+
+    /**
+     * Acknowledge an alert; every staff screen is told to clear it
+     */
+    @PostMapping("/{alertId}/acknowledge")
+    public ResponseEntity<AlertResponse> acknowledge(@PathVariable String alertId) {
+        AlertResponse alert = timeoutAlerts.acknowledge(alertId);
+        if (alert == null) {
+            log.error("❌ Open alert not found: {}", alertId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(alert);
+    }
+}
@@ -0,0 +1,43 @@
+package com.coffeequeue.controller;
+
+import com.coffeequeue.dto.BaristaResponseDto;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.service.QueueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/baristas")
+@Slf4j
+@CrossOrigin(origins = "*")
+public class BaristaController {
+
+    @Autowired
+    private QueueService queueService;
+
+    /**
+     * Get baristas with their current order and throughput
+     */
+    @GetMapping
+    public ResponseEntity<List<BaristaResponseDto>> getBaristas() {
+        return ResponseEntity.ok(queueService.getBaristaThroughput());
+    }
+
+    /**
+     * Claim the top waiting order. Repeated clicks return the order already being prepared.
+     */
+    @PostMapping("/{baristaId}/next")
+    public ResponseEntity<Order> claimNextOrder(@PathVariable String baristaId) {
+        try {
+            Order order = queueService.claimNextOrder(baristaId);
+            return order != null ? ResponseEntity.ok(order) : ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            log.error("❌ Barista not found: {}", baristaId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
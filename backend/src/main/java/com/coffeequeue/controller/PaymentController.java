@@ -1,11 +1,15 @@
 package com.coffeequeue.controller;
 
+import com.coffeequeue.dto.PaymentResult;
+import com.coffeequeue.service.PaymentService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/payments")
@@ -13,25 +17,36 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class PaymentController {
 
+    @Autowired
+    private PaymentService paymentService;
+
+    /**
+     * Process a payment asynchronously; the servlet thread is released while the gateway works.
+     * Retries carrying the same Idempotency-Key return the original result; reusing a key
+     * for a different amount is answered with 409.
+     */
     @PostMapping("/process")
-    public ResponseEntity<Map<String, Object>> processPayment(@RequestBody Map<String, Object> paymentRequest) {
-        log.info("💳 Processing simulated payment for amount: ${}", paymentRequest.get("amount"));
-        
-        // Simulate processing delay
+    public CompletableFuture<ResponseEntity<PaymentResult>> processPayment(
+        @RequestBody Map<String, Object> paymentRequest,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        Object amount = paymentRequest.get("amount");
+        double value = amount instanceof Number ? ((Number) amount).doubleValue() : 0;
+
+        CompletableFuture<PaymentResult> payment;
         try {
-            Thread.sleep(1500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            payment = paymentService.processPayment(idempotencyKey, value);
+        } catch (IllegalStateException e) {
+            log.error("❌ Payment rejected: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new PaymentResult(false, null, "Idempotency key reused for a different amount")));
         }
-        
-        String transactionId = "txn_" + UUID.randomUUID().toString().replace("-", "");
-        
-        log.info("✅ Payment successful! Transaction ID: {}", transactionId);
-        
-        return ResponseEntity.ok(Map.of(
-            "success", true,
-            "transactionId", transactionId,
-            "message", "Payment processed successfully via simulated gateway"
-        ));
+        return payment
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                log.error("❌ Payment failed: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(new PaymentResult(false, null, "Payment gateway error"));
+            });
     }
 }
@@ -1,16 +1,27 @@
 package com.coffeequeue.controller;
 
+import com.coffeequeue.dto.FairnessMetricsDto;
 import com.coffeequeue.dto.HealthResponse;
+import com.coffeequeue.dto.MetricsResponse;
+import com.coffeequeue.dto.OrderEta;
+import com.coffeequeue.dto.OrderPage;
+import com.coffeequeue.dto.OrderResponse;
 import com.coffeequeue.dto.QueueResponse;
 import com.coffeequeue.dto.QueueStats;
+import com.coffeequeue.dto.WaitTimeWindow;
+import com.coffeequeue.model.MenuSnapshot;
 import com.coffeequeue.model.Order;
 import com.coffeequeue.model.OrderItem;
 import com.coffeequeue.service.QueueService;
 import com.coffeequeue.service.MenuService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +42,9 @@ import java.util.Map;
 }, allowCredentials = "true")
 public class QueueController {
     
+    /** Response header holding the cursor of the next order history page */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private QueueService queueService;
     
@@ -53,15 +67,22 @@ public class QueueController {
      * Get menu items
      */
     @GetMapping("/menu")
-    public ResponseEntity<Map<String, Object>> getMenu() {
-        return ResponseEntity.ok(Map.of("menu", menuService.getMenu()));
+    public ResponseEntity<byte[]> getMenu(WebRequest request) {
+        MenuSnapshot menu = menuService.getSnapshot();
+        if (request.checkNotModified(menu.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .body(menu.getJson());
     }
     
     /**
-     * Place new order
+     * Place new order; the response carries its queue position and predicted ready time
      */
     @PostMapping("/orders")
-    public ResponseEntity<Order> createOrder(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<OrderResponse> createOrder(@RequestBody Map<String, Object> request) {
         try {
             List<Map<String, Object>> itemsList = (List<Map<String, Object>>) request.get("items");
             List<OrderItem> items = itemsList.stream()
@@ -86,7 +107,7 @@ public class QueueController {
             Order order = queueService.createOrder(items, isRegular, customerType, customerPhone);
             
             log.info("✅ Order placed: {} items, Type: {}, Priority Score: {}", items.size(), customerType, order.getPriorityScore());
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(new OrderResponse(order, queueService.getEta(order.getId())));
         } catch (Exception e) {
             log.error("❌ Failed to create order", e);
             return ResponseEntity.badRequest().build();
@@ -94,11 +115,45 @@ public class QueueController {
     }
     
     /**
-     * Get all orders
+     * Order history, newest first, one page per call. Filter by status and an
+     * arrival-time range ({@code from} inclusive, {@code to} exclusive); the
+     * {@value #NEXT_CURSOR_HEADER} header carries the cursor for the next page.
      */
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(queueService.getAllOrders());
+    public ResponseEntity<List<Order>> getAllOrders(
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        OrderPage page;
+        try {
+            Order.OrderStatus filterStatus = status != null && !status.isEmpty()
+                ? Order.OrderStatus.valueOf(status.toUpperCase())
+                : null;
+            page = queueService.getOrderHistory(filterStatus, from, to, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getOrders());
+    }
+    
+    /**
+     * Predicted ready time and queue position of an order
+     */
+    @GetMapping("/orders/{orderId}/eta")
+    public ResponseEntity<OrderEta> getOrderEta(@PathVariable String orderId) {
+        try {
+            OrderEta eta = queueService.getEta(orderId);
+            return eta != null ? ResponseEntity.ok(eta) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     /**
@@ -119,6 +174,7 @@ public class QueueController {
      * Get current queue status with statistics
      */
     @GetMapping("/queue")
+    @SuppressWarnings("unchecked")
     public ResponseEntity<QueueResponse> getQueue() {
         List<Order> waitingOrders = queueService.getWaitingOrders();
         Map<String, Object> statsMap = queueService.getQueueStats();
@@ -126,15 +182,33 @@ public class QueueController {
         QueueStats stats = new QueueStats(
             (Integer) statsMap.get("totalOrders"),
             Double.parseDouble((String) statsMap.get("avgWaitTime")),
-            Double.parseDouble((String) statsMap.get("timeoutRate"))
+            Double.parseDouble((String) statsMap.get("timeoutRate")),
+            (Map<String, WaitTimeWindow>) statsMap.get("waitTimes")
         );
         
         QueueResponse response = new QueueResponse(
             waitingOrders,
             queueService.getBaristas(),
-            stats
+            stats,
+            queueService.getWaitingEtas(waitingOrders)
         );
         
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Queue engine KPIs since startup, read from the metrics registry
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<MetricsResponse> getMetrics() {
+        return ResponseEntity.ok(queueService.getMetrics());
+    }
+    
+    /**
+     * How often waiting orders have been passed over by later arrivals
+     */
+    @GetMapping("/metrics/fairness")
+    public ResponseEntity<FairnessMetricsDto> getFairnessMetrics() {
+        return ResponseEntity.ok(queueService.getFairnessMetrics());
+    }
 }
@@ -0,0 +1,22 @@
+package com.coffeequeue.controller;
+
+import com.coffeequeue.dto.QueueSnapshot;
+import com.coffeequeue.service.QueueEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class QueueSocketController {
+
+    @Autowired
+    private QueueEventPublisher queueEventPublisher;
+
+    /**
+     * Versioned snapshot sent once to a client subscribing to /app/queue/snapshot
+     */
+    @SubscribeMapping("/queue/snapshot")
+    public QueueSnapshot snapshot() {
+        return queueEventPublisher.snapshot();
+    }
+}
@@ -10,6 +10,7 @@ public class BaristaResponseDto {
     private int ordersCompleted;
     private double averagePrepTime;
     private long fairnessViolations;
+    private double ordersPerHour;
     
     public BaristaResponseDto() {}
     
@@ -24,6 +25,13 @@ public class BaristaResponseDto {
         this.fairnessViolations = fairnessViolations;
     }
     
+    public BaristaResponseDto(String id, String name, String status, Order currentOrder,
+                              int ordersCompleted, double averagePrepTime, long fairnessViolations,
+                              double ordersPerHour) {
+        this(id, name, status, currentOrder, ordersCompleted, averagePrepTime, fairnessViolations);
+        this.ordersPerHour = ordersPerHour;
+    }
+    
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
@@ -44,4 +52,7 @@ public class BaristaResponseDto {
     
     public long getFairnessViolations() { return fairnessViolations; }
     public void setFairnessViolations(long fairnessViolations) { this.fairnessViolations = fairnessViolations; }
+    
+    public double getOrdersPerHour() { return ordersPerHour; }
+    public void setOrdersPerHour(double ordersPerHour) { this.ordersPerHour = ordersPerHour; }
 }
@@ -0,0 +1,18 @@
+package com.coffeequeue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicted ready time of an order
+ */
+@Data
+@AllArgsConstructor
+public class OrderEta {
+    private String orderId;
+    private int position;                        // 1-based place in the waiting queue, 0 once a barista has it
+    private LocalDateTime estimatedReadyTime;    // null when no barista is configured
+    private long minutesRemaining;
+}
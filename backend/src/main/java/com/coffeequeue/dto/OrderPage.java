@@ -0,0 +1,14 @@
+package com.coffeequeue.dto;
+
+import com.coffeequeue.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPage {
+    private List<Order> orders;
+    private String nextCursor;    // null on the last page
+}
@@ -0,0 +1,18 @@
+package com.coffeequeue.dto;
+
+import com.coffeequeue.model.Order;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A placed order with its predicted ready time. The order's fields stay at
+ * the top level, so clients reading the plain order keep working.
+ */
+@Data
+@AllArgsConstructor
+public class OrderResponse {
+    @JsonUnwrapped
+    private Order order;
+    private OrderEta eta;
+}
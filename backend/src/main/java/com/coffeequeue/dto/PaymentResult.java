@@ -0,0 +1,12 @@
+package com.coffeequeue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaymentResult {
+    private boolean success;
+    private String transactionId;
+    private String message;
+}
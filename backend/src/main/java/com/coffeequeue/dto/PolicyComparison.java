@@ -0,0 +1,20 @@
+package com.coffeequeue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * How the waiting queue would look under one scheduling policy, compared
+ * with the live ordering of the active policy
+ */
+@Data
+@AllArgsConstructor
+public class PolicyComparison {
+    private String policy;
+    private boolean active;
+    private double rankAgreement;              // Kendall tau against the live order: 1 identical, -1 reversed
+    private boolean sameNextOrder;             // would serve the same order next
+    private double meanPredictedWaitMinutes;   // arrival to predicted ready, with the current baristas
+    private double maxPredictedWaitMinutes;
+    private int predictedTimeouts;             // orders predicted ready after the urgent wait
+}
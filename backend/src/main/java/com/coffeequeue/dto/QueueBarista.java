@@ -0,0 +1,29 @@
+package com.coffeequeue.dto;
+
+import com.coffeequeue.model.Barista;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A barista as broadcast in queue snapshots, with their current order redacted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueBarista {
+    private String id;
+    private String name;
+    private String status;
+    private QueueOrder currentOrder;
+    private int ordersCompleted;
+    private long totalPrepTime;
+    private int skipsPenalty;
+    private long fairnessViolations;
+
+    public static QueueBarista from(Barista barista) {
+        return new QueueBarista(barista.getId(), barista.getName(), barista.getStatus(),
+            QueueOrder.from(barista.getCurrentOrder()), barista.getOrdersCompleted(), barista.getTotalPrepTime(),
+            barista.getSkipsPenalty(), barista.getFairnessViolations());
+    }
+}
@@ -0,0 +1,30 @@
+package com.coffeequeue.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change to the waiting queue pushed on /topic/queue. Only the fields
+ * relevant to the event type are populated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueueEvent {
+    private long version;
+    private EventType type;
+    private QueueOrder order;            // ORDER_ADDED, ORDER_ASSIGNED
+    private String orderId;              // ORDER_COMPLETED
+    private Map<String, Double> scores;  // ORDER_RERANKED: orderId -> new priority score
+    private List<String> boosted;        // ORDER_RERANKED: orders the skip cap moved to the front
+
+    public enum EventType {
+        ORDER_ADDED, ORDER_RERANKED, ORDER_ASSIGNED, ORDER_COMPLETED
+    }
+}
@@ -0,0 +1,44 @@
+package com.coffeequeue.dto;
+
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order as broadcast on /topic/queue. Anyone may subscribe, so the
+ * customer's phone number is left out. {@code boosted} marks an order the
+ * fairness skip cap moved ahead of every other; it ranks first whatever its score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueOrder {
+    private String id;
+    private List<OrderItem> items;
+    private int totalPrepTime;
+    private LocalDateTime arrivalTime;
+    private String assignedBarista;
+    private Order.OrderStatus status;
+    private double priorityScore;
+    private boolean regular;
+    private String customerType;
+    private LocalDateTime startTime;
+    private LocalDateTime completionTime;
+    private boolean boosted;
+
+    public static QueueOrder from(Order order) {
+        return from(order, false);
+    }
+
+    public static QueueOrder from(Order order, boolean boosted) {
+        if (order == null) return null;
+        return new QueueOrder(order.getId(), order.getItems(), order.getTotalPrepTime(), order.getArrivalTime(),
+            order.getAssignedBarista(), order.getStatus(), order.getPriorityScore(), order.isRegular(),
+            order.getCustomerType(), order.getStartTime(), order.getCompletionTime(), boosted);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import com.coffeequeue.model.Order;
 import com.coffeequeue.model.Barista;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -12,4 +13,5 @@ public class QueueResponse {
     private List<Order> waitingOrders;
     private List<Barista> baristas;
     private QueueStats stats;
+    private Map<String, OrderEta> etas;    // waiting order id -> predicted ready time
 }
@@ -0,0 +1,14 @@
+package com.coffeequeue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class QueueSnapshot {
+    private long version;
+    private List<QueueOrder> waitingOrders;
+    private List<QueueBarista> baristas;
+}
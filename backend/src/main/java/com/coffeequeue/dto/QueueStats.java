@@ -3,10 +3,13 @@ package com.coffeequeue.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 public class QueueStats {
     private int totalOrders;
     private double avgWaitTime;
     private double timeoutRate;
+    private Map<String, WaitTimeWindow> waitTimes;    // last15Minutes, lastHour, today
 }
@@ -0,0 +1,18 @@
+package com.coffeequeue.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Wait-time distribution of the orders completed within one window
+ */
+@Data
+@AllArgsConstructor
+public class WaitTimeWindow {
+    private long completed;
+    private double p50Minutes;
+    private double p90Minutes;
+    private double p99Minutes;
+    private double meanMinutes;
+    private double timeoutRate;    // percent of completed orders that waited past the urgent threshold
+}
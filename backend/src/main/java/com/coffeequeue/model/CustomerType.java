@@ -0,0 +1,41 @@
+package com.coffeequeue.model;
+
+/**
+ * Loyalty tier used for priority scoring. Orders keep the free-form label
+ * the client sent; this is its normalized form.
+ */
+public enum CustomerType {
+    NEW("New", 0),
+    REGULAR("Regular", 10),
+    VIP_PREMIUM("VIP Premium", 20);
+
+    private static final CustomerType[] VALUES = values();
+
+    private final String label;
+    private final int loyaltyPoints;
+
+    CustomerType(String label, int loyaltyPoints) {
+        this.label = label;
+        this.loyaltyPoints = loyaltyPoints;
+    }
+
+    public String getLabel() { return label; }
+    public int getLoyaltyPoints() { return loyaltyPoints; }
+
+    public static CustomerType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Normalize a client label; the legacy {@code regular} flag counts as at least Regular
+     */
+    public static CustomerType of(String label, boolean regular) {
+        if (VIP_PREMIUM.label.equalsIgnoreCase(label)) return VIP_PREMIUM;
+        if (regular || REGULAR.label.equalsIgnoreCase(label)) return REGULAR;
+        return NEW;
+    }
+
+    public static CustomerType of(Order order) {
+        return of(order.getCustomerType(), order.isRegular());
+    }
+}
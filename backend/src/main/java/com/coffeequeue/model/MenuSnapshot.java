@@ -0,0 +1,32 @@
+package com.coffeequeue.model;
+
+import java.util.Map;
+
+/**
+ * Immutable published version of the menu: the drinks, their response JSON
+ * serialized once and a strong ETag over those bytes. Changing the menu means
+ * publishing a new one.
+ */
+public class MenuSnapshot {
+
+    private final long version;
+    private final Map<String, Drink> drinks;
+    private final byte[] json;
+    private final String etag;
+
+    public MenuSnapshot(long version, Map<String, Drink> drinks, byte[] json, String etag) {
+        this.version = version;
+        this.drinks = drinks;
+        this.json = json;
+        this.etag = etag;
+    }
+
+    public long getVersion() { return version; }
+    public Map<String, Drink> getDrinks() { return drinks; }
+    public String getEtag() { return etag; }
+
+    /**
+     * Serialized {@code {"menu": ...}} response body. Shared, so never modify it.
+     */
+    public byte[] getJson() { return json; }
+}
@@ -6,17 +6,23 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "orders")
+@CompoundIndex(name = "status_priority", def = "{'status': 1, 'priorityScore': -1}")
+@CompoundIndex(name = "status_arrival", def = "{'status': 1, 'arrivalTime': -1, '_id': -1}")
+@CompoundIndex(name = "arrival_id", def = "{'arrivalTime': -1, '_id': -1}")
 public class Order {
     private String id;
     private String customerId;
     private List<OrderItem> items;
     private int totalPrepTime;
+    @Indexed
     private LocalDateTime arrivalTime;
     private String assignedBarista;
     private OrderStatus status;
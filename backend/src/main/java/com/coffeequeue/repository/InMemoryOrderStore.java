@@ -0,0 +1,128 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent in-memory order store with O(1) lookup by id and secondary
+ * indexes on status and customer phone.
+ *
+ * Writes are serialized per order id through {@link ConcurrentHashMap#compute},
+ * so updates to different orders never contend on a shared lock.
+ */
+@Component
+public class InMemoryOrderStore {
+
+    private final ConcurrentHashMap<String, Entry> ordersById = new ConcurrentHashMap<>();
+    private final Map<Order.OrderStatus, Set<String>> idsByStatus = new EnumMap<>(Order.OrderStatus.class);
+    private final ConcurrentHashMap<String, Set<String>> idsByPhone = new ConcurrentHashMap<>();
+
+    public InMemoryOrderStore() {
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            idsByStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Insert or replace an order and move it between index buckets if its
+     * status or phone changed since the last save.
+     */
+    public Order save(Order order) {
+        Objects.requireNonNull(order.getId(), "order id");
+        ordersById.compute(order.getId(), (id, previous) -> {
+            Entry next = new Entry(order, order.getStatus(), order.getCustomerPhone());
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, next);
+            return next;
+        });
+        return order;
+    }
+
+    public Order findById(String id) {
+        if (id == null) return null;
+        Entry entry = ordersById.get(id);
+        return entry != null ? entry.order : null;
+    }
+
+    public List<Order> findByStatus(Order.OrderStatus status) {
+        return resolve(idsByStatus.get(status));
+    }
+
+    public List<Order> findByCustomerPhone(String customerPhone) {
+        if (customerPhone == null) return Collections.emptyList();
+        return resolve(idsByPhone.get(customerPhone));
+    }
+
+    public List<Order> findAll() {
+        List<Order> orders = new ArrayList<>(ordersById.size());
+        for (Entry entry : ordersById.values()) {
+            orders.add(entry.order);
+        }
+        return orders;
+    }
+
+    public Order remove(String id) {
+        Entry[] removed = new Entry[1];
+        ordersById.computeIfPresent(id, (key, entry) -> {
+            unindex(key, entry);
+            removed[0] = entry;
+            return null;
+        });
+        return removed[0] != null ? removed[0].order : null;
+    }
+
+    public int countByStatus(Order.OrderStatus status) {
+        return idsByStatus.get(status).size();
+    }
+
+    public int size() {
+        return ordersById.size();
+    }
+
+    private void index(String id, Entry entry) {
+        if (entry.status != null) {
+            idsByStatus.get(entry.status).add(id);
+        }
+        if (entry.phone != null && !entry.phone.isEmpty()) {
+            idsByPhone.computeIfAbsent(entry.phone, p -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(String id, Entry entry) {
+        if (entry.status != null) {
+            idsByStatus.get(entry.status).remove(id);
+        }
+        if (entry.phone != null && !entry.phone.isEmpty()) {
+            idsByPhone.computeIfPresent(entry.phone, (p, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private List<Order> resolve(Set<String> ids) {
+        if (ids == null || ids.isEmpty()) return Collections.emptyList();
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Order order = findById(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /** Index keys captured at save time, since {@link Order} is mutated in place. */
+    private record Entry(Order order, Order.OrderStatus status, String phone) {}
+}
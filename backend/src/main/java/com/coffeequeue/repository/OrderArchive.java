@@ -0,0 +1,224 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for completed orders evicted from the {@link InMemoryOrderStore}.
+ *
+ * Orders are appended as JSON lines to one file per completion day
+ * ({@code completed-YYYY-MM-DD.ndjson}) and nothing is kept on the heap but a
+ * running count, so memory stays flat however long the shop has been open.
+ * Reads stream the files; they serve admin history and the in-memory
+ * fallback, not the live queue.
+ */
+@Component
+@Slf4j
+public class OrderArchive {
+
+    private static final String FILE_PREFIX = "completed-";
+    private static final String FILE_SUFFIX = ".ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Clock clock;
+
+    private long count;
+    private boolean available;
+
+    public OrderArchive(ObjectMapper objectMapper, Clock clock,
+                        @Value("${queue.archive.dir:data/archive}") String directory) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Count the archived orders once at startup
+     */
+    @PostConstruct
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            available = true;
+            forEach(order -> count++);
+            log.info("Order archive holds {} completed orders", count);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("❌ Order archive unavailable at {}: {}", directory.toAbsolutePath(), e.getMessage());
+            available = false;
+        }
+    }
+
+    /**
+     * Append completed orders to their completion-day files. Returns false if
+     * nothing was written, in which case the orders must stay in the hot store.
+     */
+    public synchronized boolean append(List<Order> orders) {
+        if (!available || orders.isEmpty()) return false;
+        Map<LocalDate, List<Order>> byDay = orders.stream()
+            .collect(Collectors.groupingBy(this::archiveDay, TreeMap::new, Collectors.toList()));
+        try {
+            for (Map.Entry<LocalDate, List<Order>> day : byDay.entrySet()) {
+                try (BufferedWriter writer = Files.newBufferedWriter(file(day.getKey()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (Order order : day.getValue()) {
+                        writer.write(objectMapper.writeValueAsString(order));
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Order archive write failed, keeping orders in memory: {}", e.getMessage());
+            return false;
+        }
+        count += orders.size();
+        return true;
+    }
+
+    /**
+     * Look an order up by id, newest day first. Scans the files, so this is
+     * only for ids that are not in the hot store.
+     */
+    public Order findById(String orderId) {
+        for (Path file : files(Comparator.reverseOrder())) {
+            Order found = null;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Cheap substring check before paying for a full parse
+                    if (line.contains(orderId)) {
+                        Order order = parse(file, line);
+                        if (order != null && orderId.equals(order.getId())) {
+                            found = order;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Order archive read of {} failed: {}", file.getFileName(), e.getMessage());
+            }
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * Stream every archived order, oldest day first
+     */
+    public void forEach(Consumer<Order> consumer) {
+        forEach(null, consumer);
+    }
+
+    /**
+     * Stream archived orders completed on or after {@code fromDay} (all when
+     * null), oldest day first. Only the matching day files are opened.
+     */
+    public void forEach(LocalDate fromDay, Consumer<Order> consumer) {
+        String firstFile = fromDay != null ? file(fromDay).getFileName().toString() : "";
+        for (Path file : files(Comparator.naturalOrder())) {
+            if (file.getFileName().toString().compareTo(firstFile) < 0) continue;
+            read(file, consumer);
+        }
+    }
+
+    /**
+     * Stream archived orders completed on or after {@code fromDay} (all when
+     * null), newest day first. Before each day file is opened {@code keepGoing}
+     * is asked with its completion day; the walk ends at the first false.
+     */
+    public void forEachNewestFirst(LocalDate fromDay, Predicate<LocalDate> keepGoing, Consumer<Order> consumer) {
+        for (Path file : files(Comparator.reverseOrder())) {
+            LocalDate day = day(file);
+            if (fromDay != null && day.isBefore(fromDay)) break;
+            if (!keepGoing.test(day)) break;
+            read(file, consumer);
+        }
+    }
+
+    public List<Order> findAll() {
+        List<Order> orders = new ArrayList<>();
+        forEach(orders::add);
+        return orders;
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    private void read(Path file, Consumer<Order> consumer) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Order order = line.isBlank() ? null : parse(file, line);
+                if (order != null) {
+                    consumer.accept(order);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Order parse(Path file, String line) {
+        try {
+            return objectMapper.readValue(line, Order.class);
+        } catch (IOException e) {
+            // A torn last line after a crash; skip it rather than losing the whole file
+            log.warn("Skipping unreadable line in {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private LocalDate archiveDay(Order order) {
+        if (order.getCompletionTime() != null) return order.getCompletionTime().toLocalDate();
+        if (order.getArrivalTime() != null) return order.getArrivalTime().toLocalDate();
+        return LocalDate.now(clock);
+    }
+
+    private Path file(LocalDate day) {
+        return directory.resolve(FILE_PREFIX + day + FILE_SUFFIX);
+    }
+
+    private static LocalDate day(Path file) {
+        String name = file.getFileName().toString();
+        return LocalDate.parse(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private List<Path> files(Comparator<String> byName) {
+        if (!available) return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(p -> p.getFileName().toString().startsWith(FILE_PREFIX)
+                    && p.getFileName().toString().endsWith(FILE_SUFFIX))
+                .sorted(Comparator.comparing(p -> p.getFileName().toString(), byName))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Order archive listing failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in the order history, which is read newest first by
+ * (arrivalTime, id). Orders placed after a cursor was issued sort before it,
+ * so following a cursor never repeats or skips an order.
+ *
+ * Encoded for clients as opaque base64url of {@code arrivalTime|id}.
+ */
+public record OrderCursor(LocalDateTime arrivalTime, String id) {
+
+    /** History order: newest arrival first, orders without an arrival time last, then id descending */
+    public static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getArrivalTime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(Order::getId)
+            .reversed();
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getArrivalTime(), order.getId());
+    }
+
+    /**
+     * Decode a client cursor; throws IllegalArgumentException if it is malformed
+     */
+    public static OrderCursor decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf('|');
+        if (separator < 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String arrival = decoded.substring(0, separator);
+        try {
+            return new OrderCursor(arrival.isEmpty() ? null : LocalDateTime.parse(arrival),
+                decoded.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = (arrivalTime != null ? arrivalTime.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * True if the order comes after this cursor in history order
+     */
+    public boolean precedes(Order order) {
+        LocalDateTime arrival = order.getArrivalTime();
+        if (arrivalTime == null) {
+            return arrival == null && order.getId().compareTo(id) < 0;
+        }
+        if (arrival == null) return true;
+        int byArrival = arrival.compareTo(arrivalTime);
+        return byArrival < 0 || (byArrival == 0 && order.getId().compareTo(id) < 0);
+    }
+}
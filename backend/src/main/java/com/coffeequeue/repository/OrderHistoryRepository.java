@@ -0,0 +1,39 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paginated reads of the order history, mixed into {@link OrderRepository}
+ */
+public interface OrderHistoryRepository {
+
+    /**
+     * Up to {@code limit} orders after {@code after} (or from the newest when
+     * null), newest first. Null filters are not applied; {@code from} is
+     * inclusive and {@code to} exclusive, both on arrival time.
+     */
+    List<Order> findHistoryPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                OrderCursor after, int limit);
+
+    /**
+     * Every matching order, oldest arrival first, read through a server
+     * cursor in batches. The stream must be closed to release the cursor.
+     */
+    Stream<Order> streamHistory(Order.OrderStatus status, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * As {@link #streamHistory}, but reading only what the dashboard and
+     * wait-time aggregates use: status, arrival and completion times, and
+     * each item's drink and quantity. Other fields are left unset.
+     */
+    Stream<Order> streamStats(Order.OrderStatus status, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Order count from the collection metadata, without scanning it
+     */
+    long estimatedCount();
+}
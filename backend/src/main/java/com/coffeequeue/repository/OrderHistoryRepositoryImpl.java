@@ -0,0 +1,97 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Served by the {@code status_arrival} and {@code arrival_id} indexes on
+ * {@link Order}: the filters and the cursor become a range scan on the
+ * index, so a page costs the same however deep into history it is.
+ */
+class OrderHistoryRepositoryImpl implements OrderHistoryRepository {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    OrderHistoryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Order> findHistoryPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                       OrderCursor after, int limit) {
+        List<Criteria> filters = filters(status, from, to);
+        if (after != null) {
+            filters.add(afterCursor(after));
+        }
+        Query query = new Query(and(filters))
+            .with(Sort.by(Sort.Direction.DESC, "arrivalTime", "_id"))
+            .limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public Stream<Order> streamHistory(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return mongoTemplate.stream(streamQuery(status, from, to), Order.class);
+    }
+
+    @Override
+    public Stream<Order> streamStats(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        Query query = streamQuery(status, from, to);
+        query.fields().include("status", "arrivalTime", "completionTime", "items.drinkType", "items.quantity");
+        return mongoTemplate.stream(query, Order.class);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Order.class);
+    }
+
+    private static Query streamQuery(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return new Query(and(filters(status, from, to)))
+            .with(Sort.by(Sort.Direction.ASC, "arrivalTime", "_id"))
+            .cursorBatchSize(STREAM_BATCH_SIZE);
+    }
+
+    private static List<Criteria> filters(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        List<Criteria> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        if (from != null) {
+            filters.add(Criteria.where("arrivalTime").gte(from));
+        }
+        if (to != null) {
+            filters.add(Criteria.where("arrivalTime").lt(to));
+        }
+        return filters;
+    }
+
+    private static Criteria and(List<Criteria> filters) {
+        return filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+    }
+
+    // Mirrors OrderCursor.precedes: descending sort puts missing arrival times last
+    private static Criteria afterCursor(OrderCursor after) {
+        if (after.arrivalTime() == null) {
+            return new Criteria().andOperator(
+                Criteria.where("arrivalTime").is(null),
+                Criteria.where("_id").lt(after.id()));
+        }
+        return new Criteria().orOperator(
+            Criteria.where("arrivalTime").lt(after.arrivalTime()),
+            new Criteria().andOperator(
+                Criteria.where("arrivalTime").is(after.arrivalTime()),
+                Criteria.where("_id").lt(after.id())),
+            Criteria.where("arrivalTime").is(null));
+    }
+}
@@ -0,0 +1,306 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal of order changes, replayed into the
+ * {@link InMemoryOrderStore} at startup so the queue survives a restart
+ * without MongoDB.
+ *
+ * Each record is {@code [payload length][crc32][type][payload]}; a save
+ * carries the full order as JSON, a remove carries the id. Records go to the
+ * current {@code orders-N.log} segment through a {@link FileChannel} and are
+ * forced to disk every {@code sync-interval-ms}. After
+ * {@code compact-after-records} appends the segment is rotated and the live
+ * store is written to {@code snapshot-N.dat}; older files are then deleted.
+ * Replay maps the latest snapshot and the segments after it, stopping at
+ * the first torn or corrupt record.
+ */
+@Component
+@Slf4j
+public class OrderJournal {
+
+    private static final byte SAVE = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_BYTES = 9;
+
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    private final InMemoryOrderStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final long compactAfterRecords;
+
+    private FileChannel segment;
+    private long segmentNumber;
+    private long recordsSinceSnapshot;
+    private boolean dirty;
+
+    public OrderJournal(InMemoryOrderStore store, ObjectMapper objectMapper,
+                        @Value("${queue.journal.enabled:true}") boolean enabled,
+                        @Value("${queue.journal.dir:data/journal}") String directory,
+                        @Value("${queue.journal.compact-after-records:10000}") long compactAfterRecords) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.compactAfterRecords = compactAfterRecords;
+    }
+
+    /**
+     * Replay the journal into the store and open the newest segment for appends
+     */
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            long base = latest(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            long records = 0;
+            if (base >= 0) {
+                records += replay(path(SNAPSHOT_PREFIX, base, SNAPSHOT_SUFFIX));
+            }
+            segmentNumber = Math.max(base, 0);
+            for (long n : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (n < base) continue;
+                long replayed = replay(path(SEGMENT_PREFIX, n, SEGMENT_SUFFIX));
+                records += replayed;
+                recordsSinceSnapshot += replayed;
+                segmentNumber = n;
+            }
+            segment = openSegment(segmentNumber);
+            log.info("Order journal replayed {} records into {} orders in {} ms", records, store.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("❌ Order journal unavailable at {}, orders will not survive a restart: {}",
+                directory.toAbsolutePath(), e.getMessage());
+            segment = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (segment == null) return;
+        try {
+            segment.force(false);
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Order journal close failed: {}", e.getMessage());
+        }
+        segment = null;
+    }
+
+    /**
+     * Journal the current state of an order. Serialized under the journal
+     * lock so the last record for an order is always its latest state.
+     */
+    public synchronized void saved(Order order) {
+        if (segment == null) return;
+        try {
+            append(SAVE, objectMapper.writeValueAsBytes(order));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized void removed(String orderId) {
+        if (segment == null) return;
+        try {
+            append(REMOVE, orderId.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${queue.journal.sync-interval-ms:1000}")
+    public void sync() {
+        boolean compact;
+        synchronized (this) {
+            if (segment == null || !dirty) return;
+            try {
+                segment.force(false);
+                dirty = false;
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            compact = recordsSinceSnapshot >= compactAfterRecords;
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * Rotate to a new segment and snapshot the store. Every change journaled
+     * before the rotation is already applied to the store, so the snapshot
+     * plus the segments from the new one onwards is complete.
+     */
+    public void compact() {
+        long base;
+        synchronized (this) {
+            if (segment == null) return;
+            try {
+                segment.force(false);
+                segment.close();
+                segment = openSegment(++segmentNumber);
+                recordsSinceSnapshot = 0;
+                dirty = false;
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            base = segmentNumber;
+        }
+
+        long start = System.nanoTime();
+        List<Order> orders = store.findAll();
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + base + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Order order : orders) {
+                    write(out, SAVE, objectMapper.writeValueAsBytes(order));
+                }
+                out.force(true);
+            }
+            Files.move(temp, path(SNAPSHOT_PREFIX, base, SNAPSHOT_SUFFIX),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (long n : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (n < base) Files.deleteIfExists(path(SEGMENT_PREFIX, n, SEGMENT_SUFFIX));
+            }
+            for (long n : numbers(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (n < base) Files.deleteIfExists(path(SNAPSHOT_PREFIX, n, SNAPSHOT_SUFFIX));
+            }
+            log.info("Order journal compacted to {} orders in {} ms", orders.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            // The previous snapshot and all segments are still in place
+            log.warn("Order journal compaction failed: {}", e.getMessage());
+        }
+    }
+
+    private void append(byte type, byte[] payload) throws IOException {
+        write(segment, type, payload);
+        recordsSinceSnapshot++;
+        dirty = true;
+    }
+
+    private static void write(FileChannel channel, byte type, byte[] payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt(checksum(type, payload)).put(type).put(payload).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Apply every intact record of a file to the store and return the count.
+     * A torn or corrupt tail is truncated so later appends start clean.
+     */
+    private long replay(Path file) throws IOException {
+        long records = 0;
+        long validLength;
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            validLength = 0;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int crc = buffer.getInt();
+                byte type = buffer.get();
+                if (length < 0 || length > buffer.remaining()) break;
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (checksum(type, payload) != crc) break;
+                apply(type, payload);
+                records++;
+                validLength = buffer.position();
+            }
+        }
+        if (validLength < size) {
+            log.warn("Order journal {} has a damaged tail, truncating {} bytes", file.getFileName(), size - validLength);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return records;
+    }
+
+    private void apply(byte type, byte[] payload) throws IOException {
+        if (type == SAVE) {
+            store.save(objectMapper.readValue(payload, Order.class));
+        } else if (type == REMOVE) {
+            store.remove(new String(payload, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void fail(IOException e) {
+        log.error("❌ Order journal write failed, journaling disabled: {}", e.getMessage());
+        try {
+            segment.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+        segment = null;
+    }
+
+    private FileChannel openSegment(long n) throws IOException {
+        return FileChannel.open(path(SEGMENT_PREFIX, n, SEGMENT_SUFFIX),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path path(String prefix, long n, String suffix) {
+        return directory.resolve(prefix + n + suffix);
+    }
+
+    private long latest(String prefix, String suffix) throws IOException {
+        long[] numbers = numbers(prefix, suffix);
+        return numbers.length > 0 ? numbers[numbers.length - 1] : -1;
+    }
+
+    private long[] numbers(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                .map(name -> name.substring(prefix.length(), name.length() - suffix.length()))
+                .filter(n -> !n.isEmpty() && n.chars().allMatch(Character::isDigit))
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .toArray();
+        }
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -2,13 +2,19 @@ package com.coffeequeue.repository;
 
 import com.coffeequeue.model.Order;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderHistoryRepository {
     List<Order> findByStatus(Order.OrderStatus status);
     List<Order> findByCustomerPhone(String customerPhone);
     List<Order> findByStatusOrderByPriorityScoreDesc(Order.OrderStatus status);
+
+    /** Only id and status of the given orders, for comparing against the journal */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'status': 1 }")
+    List<Order> findStatusByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,315 @@
+package com.coffeequeue.repository;
+
+import com.coffeequeue.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists order mutations to MongoDB behind the in-memory store.
+ *
+ * In {@code sync} mode every save is a blocking round-trip, as before. In
+ * {@code group-commit} and {@code async} modes saves are coalesced per order
+ * id (only the latest state is written) and flushed by a background thread in
+ * one unordered bulk write once {@code batch-size} orders are pending or the
+ * oldest has waited {@code flush-interval-ms}. Group commit blocks the caller
+ * until its batch is written; async acknowledges from memory immediately.
+ *
+ * A failed flush is requeued and retried. While Mongo is failing, group
+ * commit degrades to async so requests don't queue behind the outage.
+ */
+@Component
+@Slf4j
+public class OrderWriteBehind {
+
+    public enum DurabilityMode {
+        SYNC, GROUP_COMMIT, ASYNC;
+
+        static DurabilityMode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    @Autowired(required = false)
+    private MongoTemplate mongoTemplate;
+
+    private final DurabilityMode mode;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long commitTimeoutMs;
+    private final long retryBackoffMs;
+
+    private final Object lock = new Object();
+    private Map<String, Order> pending = new LinkedHashMap<>();
+    private CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+    private long oldestPendingNanos;
+    private volatile boolean mongoHealthy = true;
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedOrders = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushLagMs;
+    private volatile long maxFlushLagMs;
+    private volatile int lastBatchSize;
+
+    private Thread flusher;
+
+    public OrderWriteBehind(@Value("${queue.persistence.mode:group-commit}") String mode,
+                            @Value("${queue.persistence.batch-size:200}") int batchSize,
+                            @Value("${queue.persistence.flush-interval-ms:10}") long flushIntervalMs,
+                            @Value("${queue.persistence.commit-timeout-ms:2000}") long commitTimeoutMs,
+                            @Value("${queue.persistence.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.mode = DurabilityMode.parse(mode);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    // Runs in sync mode too, to retry startup rewrites that could not be written at once
+    @PostConstruct
+    public void start() {
+        if (mongoTemplate == null) return;
+        flusher = new Thread(this::drain, "order-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Order persistence: {} (batch {} / {} ms)", mode, batchSize,
+            TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) return;
+        flusher.interrupt();
+        flusher.join(commitTimeoutMs);
+        if (mongoHealthy) {
+            flush();
+        }
+        int unflushed = pendingCount();
+        if (unflushed > 0) {
+            log.warn("Order write-behind stopped with {} orders unflushed", unflushed);
+        }
+    }
+
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Persist the current state of an order according to the durability mode
+     */
+    public void write(Order order) {
+        if (mongoTemplate == null) return;
+        writes.incrementAndGet();
+        if (mode == DurabilityMode.SYNC) {
+            try {
+                mongoTemplate.save(order);
+            } catch (Exception e) {
+                log.warn("MongoDB save failed, using in-memory: {}", e.getMessage());
+            }
+            return;
+        }
+
+        CompletableFuture<Void> flushed = enqueue(order);
+        if (mode == DurabilityMode.GROUP_COMMIT && mongoHealthy) {
+            awaitCommit(order, flushed);
+        }
+    }
+
+    /**
+     * Persist several orders in one bulk write on the calling thread, in any
+     * mode. Used at startup, where waiting on the flusher could stall behind
+     * bean creation; if the write fails the orders are left to the flusher.
+     */
+    public void writeAll(Collection<Order> orders) {
+        if (mongoTemplate == null || orders.isEmpty()) return;
+        writes.addAndGet(orders.size());
+        try {
+            bulkUpsert(orders);
+        } catch (Exception e) {
+            log.warn("MongoDB bulk write of {} orders failed, retrying in the background: {}",
+                orders.size(), e.getMessage());
+            orders.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Hand orders to the background flusher without waiting for them, in any mode
+     */
+    public void writeLater(Collection<Order> orders) {
+        if (mongoTemplate == null) return;
+        writes.addAndGet(orders.size());
+        orders.forEach(this::enqueue);
+    }
+
+    // Add to the pending batch and return the flush that will carry it
+    private CompletableFuture<Void> enqueue(Order order) {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            if (pending.put(order.getId(), order) != null) {
+                coalesced.incrementAndGet();
+            }
+            if (pending.size() == 1 || pending.size() >= batchSize) {
+                lock.notifyAll();
+            }
+            return nextFlush;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long oldestAgeMs;
+        int pendingOrders;
+        synchronized (lock) {
+            pendingOrders = pending.size();
+            oldestAgeMs = pendingOrders > 0 ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestPendingNanos) : 0;
+        }
+        stats.put("mode", mode.name());
+        stats.put("mongoHealthy", mongoTemplate != null && mongoHealthy);
+        stats.put("pendingOrders", pendingOrders);
+        stats.put("oldestPendingMs", oldestAgeMs);
+        stats.put("writes", writes.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("flushes", flushes.get());
+        stats.put("flushedOrders", flushedOrders.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastFlushLagMs", lastFlushLagMs);
+        stats.put("maxFlushLagMs", maxFlushLagMs);
+        return stats;
+    }
+
+    private void awaitCommit(Order order, CompletableFuture<Void> flushed) {
+        try {
+            flushed.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Order {} not committed within {} ms, acknowledged from memory", order.getId(), commitTimeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("MongoDB group commit failed, using in-memory: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                awaitBatch();
+                if (flush() < 0) {
+                    Thread.sleep(retryBackoffMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Size/time trigger: wake when the batch is full or the oldest pending write is due
+    private void awaitBatch() throws InterruptedException {
+        synchronized (lock) {
+            while (pending.isEmpty()) {
+                lock.wait();
+            }
+            long remaining;
+            while (pending.size() < batchSize
+                && (remaining = oldestPendingNanos + flushIntervalNanos - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+        }
+    }
+
+    /**
+     * Write all pending orders in one bulk operation. Returns the number
+     * written, or -1 if the flush failed and the batch was requeued.
+     */
+    private int flush() {
+        Map<String, Order> batch;
+        CompletableFuture<Void> done;
+        long oldest;
+        synchronized (lock) {
+            if (pending.isEmpty()) return 0;
+            batch = pending;
+            done = nextFlush;
+            oldest = oldestPendingNanos;
+            pending = new LinkedHashMap<>();
+            nextFlush = new CompletableFuture<>();
+        }
+
+        try {
+            bulkUpsert(batch.values());
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            if (mongoHealthy) {
+                log.warn("MongoDB bulk write of {} orders failed, retrying: {}", batch.size(), e.getMessage());
+            }
+            mongoHealthy = false;
+            requeue(batch, oldest);
+            done.completeExceptionally(e);
+            return -1;
+        }
+
+        long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+        flushes.incrementAndGet();
+        flushedOrders.addAndGet(batch.size());
+        lastBatchSize = batch.size();
+        lastFlushLagMs = lagMs;
+        maxFlushLagMs = Math.max(maxFlushLagMs, lagMs);
+        if (!mongoHealthy) {
+            log.info("MongoDB writes recovered");
+            mongoHealthy = true;
+        }
+        done.complete(null);
+        return batch.size();
+    }
+
+    private void bulkUpsert(Collection<Order> orders) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        for (Order order : orders) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(order.getId())), order,
+                FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    // Put a failed batch back without overwriting newer saves of the same orders
+    private void requeue(Map<String, Order> batch, long oldest) {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                pending = batch;
+            } else {
+                Map<String, Order> merged = new LinkedHashMap<>(batch);
+                merged.putAll(pending);
+                pending = merged;
+            }
+            oldestPendingNanos = oldest;
+        }
+    }
+
+    private int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.coffeequeue.security;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -61,8 +62,8 @@ public class SecurityConfig {
         // Allow connections from any device on the local network (for QR code table ordering)
         configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:*", "http://10.*:*", "http://192.168.*:*", "http://172.*:*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token", "idempotency-key", "if-none-match"));
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "etag", "x-next-cursor"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -79,9 +80,12 @@ public class SecurityConfig {
                 auth.requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/menu").permitAll()
                     .requestMatchers("/orders").permitAll() // Allow placing orders without login for now
+                    .requestMatchers(HttpMethod.GET, "/orders/*/eta").permitAll() // Customers track their own order
                     .requestMatchers("/payments/**").permitAll() // Allow payments
                     .requestMatchers("/ws/**").permitAll()
                     .requestMatchers("/health").permitAll()
+                    // Actuator is only served on the internal management port (management.server.*)
+                    .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                     .anyRequest().authenticated()
             );
         
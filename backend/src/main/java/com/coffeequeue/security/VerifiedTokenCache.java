@@ -0,0 +1,88 @@
+package com.coffeequeue.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of principals for JWTs that have already been verified.
+ *
+ * Entries are keyed by the SHA-256 digest of the token, never the token
+ * itself, and expire at the token's own expiry or after a short TTL,
+ * whichever comes first.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxTtlMs;
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-entries:10000}") int maxEntries,
+                              @Value("${security.jwt.cache.ttl-ms:300000}") long maxTtlMs) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMs = maxTtlMs;
+    }
+
+    public UserDetails get(String token) {
+        String key = digest(token);
+        CachedPrincipal cached = principals.get(key);
+        if (cached == null) return null;
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            principals.remove(key, cached);
+            return null;
+        }
+        return cached.userDetails;
+    }
+
+    public void put(String token, UserDetails userDetails, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTtlMs;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) return;
+        if (principals.size() >= maxEntries) {
+            evict(now);
+        }
+        principals.put(digest(token), new CachedPrincipal(userDetails, expiresAt));
+    }
+
+    public int size() {
+        return principals.size();
+    }
+
+    // Drop expired entries; if that is not enough, drop arbitrary ones down to 90% capacity
+    private void evict(long now) {
+        principals.values().removeIf(p -> p.expiresAt <= now);
+        Iterator<String> keys = principals.keySet().iterator();
+        while (principals.size() > maxEntries * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAt) {}
+}
@@ -0,0 +1,258 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.BaristaResponseDto;
+import com.coffeequeue.model.Barista;
+import com.coffeequeue.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Assigns waiting orders to baristas.
+ *
+ * Baristas sit in a min-heap keyed by predicted free time (start of their
+ * current order plus its prep time, or "now" when idle). Claims poll the top
+ * of the {@link WaitingQueue} under this engine's lock, so two concurrent
+ * claims can never receive the same order and a barista never holds two.
+ * The fairness skip cap is applied through the queue's ordering
+ * ({@link #enforceSkipCap}), so the top of the queue is always what is served.
+ */
+@Component
+@Slf4j
+public class BaristaAssignmentEngine {
+
+    public static final String IDLE = "IDLE";
+    public static final String BUSY = "BUSY";
+
+    private final WaitingQueue waitingQueue;
+    private final FairnessTracker fairnessTracker;
+    private final Map<String, BaristaSlot> baristas = new LinkedHashMap<>();
+    private final Map<String, BaristaSlot> baristaByOrder = new HashMap<>();
+    private final PriorityQueue<BaristaSlot> byPredictedFreeTime = new PriorityQueue<>(
+        Comparator.comparingLong((BaristaSlot slot) -> slot.predictedFreeAt).thenComparing(slot -> slot.barista.getId()));
+    private final Clock clock;
+    private final LocalDateTime shiftStart;
+    private final boolean autoDispatch;
+
+    public BaristaAssignmentEngine(WaitingQueue waitingQueue, FairnessTracker fairnessTracker, Clock clock,
+                                   @Value("${queue.baristas:barista,barista2}") List<String> baristaIds,
+                                   @Value("${queue.assignment.auto-dispatch:false}") boolean autoDispatch) {
+        this.waitingQueue = waitingQueue;
+        this.fairnessTracker = fairnessTracker;
+        this.clock = clock;
+        this.shiftStart = LocalDateTime.now(clock);
+        this.autoDispatch = autoDispatch;
+        long now = toMillis(shiftStart);
+        for (String id : baristaIds) {
+            Barista barista = new Barista(id, id, IDLE, null, 0, 0, 0, 0);
+            BaristaSlot slot = new BaristaSlot(barista, now);
+            baristas.put(id, slot);
+            byPredictedFreeTime.add(slot);
+        }
+    }
+
+    /**
+     * Whether new orders go straight to idle baristas instead of waiting to be claimed
+     */
+    public boolean isAutoDispatch() {
+        return autoDispatch;
+    }
+
+    public synchronized Order getCurrentOrder(String baristaId) {
+        return slotOf(baristaId).barista.getCurrentOrder();
+    }
+
+    /**
+     * Assign the top waiting order to an idle barista. Returns the newly
+     * assigned order, or null if the barista is busy or the queue is empty.
+     */
+    public synchronized Order claimNext(String baristaId, LocalDateTime now) {
+        BaristaSlot slot = slotOf(baristaId);
+        if (slot.barista.getCurrentOrder() != null) {
+            return null;
+        }
+        Order order = nextOrder();
+        if (order != null) {
+            assign(slot, order, now);
+        }
+        return order;
+    }
+
+    /**
+     * Hand waiting orders to idle baristas, earliest predicted-free first.
+     */
+    public synchronized List<Order> dispatch(LocalDateTime now) {
+        List<Order> assigned = new ArrayList<>();
+        List<BaristaSlot> busy = new ArrayList<>();
+        while (!byPredictedFreeTime.isEmpty() && waitingQueue.size() > 0) {
+            BaristaSlot slot = byPredictedFreeTime.poll();
+            if (slot.barista.getCurrentOrder() != null) {
+                busy.add(slot);
+                continue;
+            }
+            byPredictedFreeTime.add(slot);
+            Order order = nextOrder();
+            if (order == null) break;
+            assign(slot, order, now);
+            assigned.add(order);
+        }
+        byPredictedFreeTime.addAll(busy);
+        return assigned;
+    }
+
+    /**
+     * Free the barista preparing this order and record their throughput.
+     * Returns the barista id, or null if the order was not assigned.
+     */
+    public synchronized String release(String orderId, LocalDateTime now) {
+        BaristaSlot slot = baristaByOrder.remove(orderId);
+        if (slot == null) return null;
+        Barista barista = slot.barista;
+        Order order = barista.getCurrentOrder();
+        if (order != null && order.getStartTime() != null) {
+            barista.setTotalPrepTime(barista.getTotalPrepTime() + Duration.between(order.getStartTime(), now).toMillis());
+        }
+        barista.setOrdersCompleted(barista.getOrdersCompleted() + 1);
+        barista.setCurrentOrder(null);
+        barista.setStatus(IDLE);
+        reposition(slot, toMillis(now));
+        return barista.getId();
+    }
+
+    /**
+     * Re-attach a PREPARING order loaded from the store at startup.
+     * Returns false if its barista is unknown or already holds an order.
+     */
+    public synchronized boolean restore(Order order) {
+        BaristaSlot slot = baristas.get(order.getAssignedBarista());
+        if (slot == null || slot.barista.getCurrentOrder() != null) {
+            return false;
+        }
+        attach(slot, order);
+        return true;
+    }
+
+    public synchronized Order getAssignedOrder(String orderId) {
+        BaristaSlot slot = baristaByOrder.get(orderId);
+        return slot != null ? slot.barista.getCurrentOrder() : null;
+    }
+
+    /**
+     * Predicted free time of every barista in epoch millis, earliest first
+     */
+    public synchronized long[] predictedFreeTimes() {
+        return byPredictedFreeTime.stream().mapToLong(slot -> slot.predictedFreeAt).sorted().toArray();
+    }
+
+    public synchronized List<Barista> getBaristas() {
+        List<Barista> copies = new ArrayList<>(baristas.size());
+        for (BaristaSlot slot : baristas.values()) {
+            Barista b = slot.barista;
+            copies.add(new Barista(b.getId(), b.getName(), b.getStatus(), b.getCurrentOrder(),
+                b.getOrdersCompleted(), b.getTotalPrepTime(), b.getSkipsPenalty(), b.getFairnessViolations()));
+        }
+        return copies;
+    }
+
+    /**
+     * Per-barista throughput: completed orders, mean prep minutes and orders per hour on shift
+     */
+    public synchronized List<BaristaResponseDto> getThroughput(LocalDateTime now) {
+        double hoursOnShift = Math.max(Duration.between(shiftStart, now).toMillis() / 3_600_000.0, 1.0 / 60);
+        List<BaristaResponseDto> throughput = new ArrayList<>(baristas.size());
+        for (BaristaSlot slot : baristas.values()) {
+            Barista b = slot.barista;
+            double avgPrepMinutes = b.getOrdersCompleted() > 0
+                ? b.getTotalPrepTime() / 60_000.0 / b.getOrdersCompleted()
+                : 0;
+            throughput.add(new BaristaResponseDto(b.getId(), b.getName(), b.getStatus(), b.getCurrentOrder(),
+                b.getOrdersCompleted(), avgPrepMinutes, b.getFairnessViolations(),
+                b.getOrdersCompleted() / hoursOnShift));
+        }
+        return throughput;
+    }
+
+    private BaristaSlot slotOf(String baristaId) {
+        BaristaSlot slot = baristas.get(baristaId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Barista not found: " + baristaId);
+        }
+        return slot;
+    }
+
+    /**
+     * Boost the oldest waiting order once it has been skipped as often as
+     * fairness allows, so the queue ranks it first. Returns its id if it was
+     * boosted just now, otherwise null.
+     */
+    public synchronized String enforceSkipCap() {
+        String overdue;
+        while ((overdue = fairnessTracker.overdue()) != null && !waitingQueue.isBoosted(overdue)) {
+            if (waitingQueue.boost(overdue)) {
+                log.info("Order {} moved to the front of the queue after {} skips",
+                    overdue, fairnessTracker.getMaxSkips());
+                return overdue;
+            }
+            fairnessTracker.dropped(overdue);
+        }
+        return null;
+    }
+
+    private Order nextOrder() {
+        enforceSkipCap();
+        return waitingQueue.poll();
+    }
+
+    private void assign(BaristaSlot slot, Order order, LocalDateTime now) {
+        FairnessTracker.Served served = fairnessTracker.served(order.getId(), slot.barista.getId());
+        slot.barista.setSkipsPenalty(slot.barista.getSkipsPenalty() + served.skipped());
+        if (served.violation()) {
+            slot.barista.setFairnessViolations(slot.barista.getFairnessViolations() + 1);
+        }
+        order.setStatus(Order.OrderStatus.PREPARING);
+        order.setAssignedBarista(slot.barista.getId());
+        order.setStartTime(now);
+        attach(slot, order);
+        log.info("Order {} assigned to barista {}", order.getId(), slot.barista.getId());
+    }
+
+    private void attach(BaristaSlot slot, Order order) {
+        slot.barista.setCurrentOrder(order);
+        slot.barista.setStatus(BUSY);
+        baristaByOrder.put(order.getId(), slot);
+        LocalDateTime start = order.getStartTime() != null ? order.getStartTime() : LocalDateTime.now(clock);
+        reposition(slot, toMillis(start.plusMinutes(order.getTotalPrepTime())));
+    }
+
+    private void reposition(BaristaSlot slot, long predictedFreeAt) {
+        byPredictedFreeTime.remove(slot);
+        slot.predictedFreeAt = predictedFreeAt;
+        byPredictedFreeTime.add(slot);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class BaristaSlot {
+        private final Barista barista;
+        private long predictedFreeAt;
+
+        private BaristaSlot(Barista barista, long predictedFreeAt) {
+            this.barista = barista;
+            this.predictedFreeAt = predictedFreeAt;
+        }
+    }
+}
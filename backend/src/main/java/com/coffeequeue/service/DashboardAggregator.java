@@ -0,0 +1,186 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Live counters behind the admin dashboard.
+ *
+ * Updated on every order state transition, so reading the dashboard costs
+ * O(1) regardless of order history. Per-day figures are attributed to the
+ * order's arrival date and reset at midnight; totals and drink popularity
+ * are all-time. The counters are rebuilt from the store once at startup.
+ */
+@Component
+@Slf4j
+public class DashboardAggregator {
+
+    // Revenue estimation (based on item count * avg price)
+    public static final int AVG_ITEM_PRICE = 175;
+
+    private static final int FIRST_CHART_HOUR = 6;
+    private static final int LAST_CHART_HOUR = 22;
+
+    private final Clock clock;
+    private final AtomicReference<DayAggregate> today;
+    private final LongAdder totalOrders = new LongAdder();
+    private final Map<String, LongAdder> itemCounts = new ConcurrentHashMap<>();
+
+    public DashboardAggregator(Clock clock) {
+        this.clock = clock;
+        this.today = new AtomicReference<>(new DayAggregate(LocalDate.now(clock)));
+    }
+
+    /**
+     * Reset all counters, ahead of {@link #replay(Order)}-ing the stored orders
+     */
+    public synchronized void reset() {
+        today.set(new DayAggregate(LocalDate.now(clock)));
+        totalOrders.reset();
+        itemCounts.clear();
+    }
+
+    /**
+     * Count a stored order in its current state, e.g. while rebuilding at startup
+     */
+    public void replay(Order order) {
+        orderCreated(order);
+        if (order.getStatus() != null && order.getStatus() != Order.OrderStatus.WAITING) {
+            statusChanged(order, Order.OrderStatus.WAITING);
+        }
+    }
+
+    /**
+     * Count a newly placed (WAITING) order
+     */
+    public void orderCreated(Order order) {
+        totalOrders.increment();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                itemCounts.computeIfAbsent(item.getDrinkType(), d -> new LongAdder()).add(item.getQuantity());
+            }
+        }
+        DayAggregate day = dayOf(order);
+        if (day != null) {
+            day.orders.increment();
+            day.byStatus.get(Order.OrderStatus.WAITING).increment();
+        }
+    }
+
+    /**
+     * Move an order between status counters; revenue is booked on completion
+     */
+    public void statusChanged(Order order, Order.OrderStatus previous) {
+        Order.OrderStatus current = order.getStatus();
+        if (previous == current) return;
+        DayAggregate day = dayOf(order);
+        if (day == null) return;
+        if (previous != null) {
+            day.byStatus.get(previous).decrement();
+        }
+        if (current != null) {
+            day.byStatus.get(current).increment();
+        }
+        if (current == Order.OrderStatus.COMPLETED) {
+            double value = orderValue(order);
+            day.revenue.add(value);
+            day.hourlyRevenue[order.getArrivalTime().getHour()].add(value);
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollover() {
+        rollover(LocalDate.now(clock));
+    }
+
+    public Map<String, Object> getDashboard() {
+        DayAggregate day = current();
+        long todayCompleted = day.byStatus.get(Order.OrderStatus.COMPLETED).sum();
+        double todayRevenue = day.revenue.sum();
+        double avgOrderValue = todayCompleted > 0 ? todayRevenue / todayCompleted : 0;
+
+        // Revenue by hour (for chart)
+        Map<Integer, Double> hourlyRevenue = new TreeMap<>();
+        for (int h = 0; h < 24; h++) {
+            double revenue = day.hourlyRevenue[h].sum();
+            if ((h >= FIRST_CHART_HOUR && h <= LAST_CHART_HOUR) || revenue > 0) {
+                hourlyRevenue.put(h, revenue);
+            }
+        }
+
+        // Popular items
+        List<Map<String, Object>> popularItems = itemCounts.entrySet().stream()
+            .map(e -> Map.entry(e.getKey(), e.getValue().intValue()))
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(6)
+            .map(e -> Map.<String, Object>of("name", e.getKey(), "count", e.getValue()))
+            .collect(Collectors.toList());
+
+        return Map.of(
+            "todayOrders", day.orders.sum(),
+            "todayCompleted", todayCompleted,
+            "todayWaiting", day.byStatus.get(Order.OrderStatus.WAITING).sum(),
+            "todayRevenue", todayRevenue,
+            "avgOrderValue", Math.round(avgOrderValue * 100.0) / 100.0,
+            "totalOrders", totalOrders.sum(),
+            "hourlyRevenue", hourlyRevenue,
+            "popularItems", popularItems
+        );
+    }
+
+    private void rollover(LocalDate date) {
+        DayAggregate day = today.get();
+        if (date.isAfter(day.date) && today.compareAndSet(day, new DayAggregate(date))) {
+            log.info("Dashboard day rolled over to {}", date);
+        }
+    }
+
+    private DayAggregate current() {
+        rollover(LocalDate.now(clock));
+        return today.get();
+    }
+
+    private DayAggregate dayOf(Order order) {
+        if (order.getArrivalTime() == null) return null;
+        DayAggregate day = current();
+        return order.getArrivalTime().toLocalDate().equals(day.date) ? day : null;
+    }
+
+    private static double orderValue(Order order) {
+        if (order.getItems() == null) return 0;
+        return order.getItems().stream().mapToInt(i -> i.getQuantity() * AVG_ITEM_PRICE).sum();
+    }
+
+    private static final class DayAggregate {
+        private final LocalDate date;
+        private final LongAdder orders = new LongAdder();
+        private final Map<Order.OrderStatus, LongAdder> byStatus = new EnumMap<>(Order.OrderStatus.class);
+        private final DoubleAdder revenue = new DoubleAdder();
+        private final DoubleAdder[] hourlyRevenue = new DoubleAdder[24];
+
+        private DayAggregate(LocalDate date) {
+            this.date = date;
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+            for (int h = 0; h < hourlyRevenue.length; h++) {
+                hourlyRevenue[h] = new DoubleAdder();
+            }
+        }
+    }
+}
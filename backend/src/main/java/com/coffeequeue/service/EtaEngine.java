@@ -0,0 +1,127 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.OrderEta;
+import com.coffeequeue.model.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Predicts when orders will be ready.
+ *
+ * A waiting order starts once the baristas have worked through the prep
+ * minutes queued ahead of it. That work is poured onto the baristas'
+ * predicted free times, and the order starts at the level where it has all
+ * been absorbed: with one barista idle and one busy for ten more minutes,
+ * five minutes of work ahead means a start in five, thirty means twenty.
+ *
+ * Rank and prep minutes ahead come from {@link WaitingQueue#position}, which
+ * the queue keeps up to date on every change, so an estimate costs
+ * O(log n + baristas) and nothing is recomputed over the whole queue.
+ */
+@Component
+public class EtaEngine {
+
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final long UNKNOWN = -1;
+
+    private final WaitingQueue waitingQueue;
+    private final BaristaAssignmentEngine assignmentEngine;
+
+    public EtaEngine(WaitingQueue waitingQueue, BaristaAssignmentEngine assignmentEngine) {
+        this.waitingQueue = waitingQueue;
+        this.assignmentEngine = assignmentEngine;
+    }
+
+    /**
+     * ETA of a single order, or null if it is marked WAITING but no longer queued
+     */
+    public OrderEta estimate(Order order, LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        if (order.getStatus() == Order.OrderStatus.WAITING) {
+            WaitingQueue.Position position = waitingQueue.position(order.getId());
+            if (position == null) return null;
+            long start = startAfter(assignmentEngine.predictedFreeTimes(), nowMillis,
+                position.prepMinutesAhead() * MINUTE_MILLIS);
+            return eta(order, position.rank() + 1, start, nowMillis);
+        }
+        if (order.getStatus() == Order.OrderStatus.PREPARING) {
+            long start = order.getStartTime() != null ? toMillis(order.getStartTime()) : nowMillis;
+            // An order running over its prep time is expected any moment
+            return eta(order, 0, Math.max(start, nowMillis - order.getTotalPrepTime() * MINUTE_MILLIS), nowMillis);
+        }
+        LocalDateTime done = order.getCompletionTime() != null ? order.getCompletionTime() : now;
+        return new OrderEta(order.getId(), 0, done, 0);
+    }
+
+    /**
+     * ETAs of the waiting orders, given in priority order, keyed by order id.
+     * One pass carries the prep minutes ahead from each order to the next.
+     */
+    public Map<String, OrderEta> estimateAll(List<Order> waiting, LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        long[] starts = predictStarts(waiting, nowMillis);
+        Map<String, OrderEta> etas = new LinkedHashMap<>();
+        for (int i = 0; i < waiting.size(); i++) {
+            etas.put(waiting.get(i).getId(), eta(waiting.get(i), i + 1, starts[i], nowMillis));
+        }
+        return etas;
+    }
+
+    /**
+     * Predicted start of each order in epoch millis if the queue ran in the
+     * given order, or -1 for all with no baristas. Lets candidate orderings
+     * be compared with the live one.
+     */
+    public long[] predictStarts(List<Order> ordering, long nowMillis) {
+        long[] freeTimes = assignmentEngine.predictedFreeTimes();
+        long[] starts = new long[ordering.size()];
+        long prepAhead = 0;
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = startAfter(freeTimes, nowMillis, prepAhead * MINUTE_MILLIS);
+            prepAhead += ordering.get(i).getTotalPrepTime();
+        }
+        return starts;
+    }
+
+    private static OrderEta eta(Order order, int position, long startMillis, long nowMillis) {
+        if (startMillis == UNKNOWN) {
+            return new OrderEta(order.getId(), position, null, 0);
+        }
+        long ready = startMillis + order.getTotalPrepTime() * MINUTE_MILLIS;
+        long minutes = Math.max(0, Math.floorDiv(ready - nowMillis + MINUTE_MILLIS - 1, MINUTE_MILLIS));
+        return new OrderEta(order.getId(), position,
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(ready), ZoneId.systemDefault()), minutes);
+    }
+
+    /**
+     * Earliest time at which baristas free at {@code freeTimes} (sorted) have
+     * absorbed {@code workMillis} of prep, or {@link #UNKNOWN} with no baristas
+     */
+    private static long startAfter(long[] freeTimes, long nowMillis, long workMillis) {
+        int baristas = freeTimes.length;
+        if (baristas == 0) return UNKNOWN;
+        long level = Math.max(freeTimes[0], nowMillis);
+        long remaining = workMillis;
+        // `free` baristas are working at `level`; raise it until the next one joins or the work runs out
+        for (int free = 1; free < baristas; free++) {
+            long next = Math.max(freeTimes[free], nowMillis);
+            long capacity = (next - level) * free;
+            if (remaining <= capacity) {
+                return level + remaining / free;
+            }
+            remaining -= capacity;
+            level = next;
+        }
+        return level + remaining / baristas;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,222 @@
+package com.coffeequeue.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts how often waiting orders are passed over by later arrivals.
+ *
+ * Waiting orders are numbered by arrival. One Fenwick tree counts which
+ * numbers are still waiting, so serving an order reads how many earlier
+ * arrivals it skipped as a prefix sum; a second one holds per-order skip
+ * counts as range additions, so crediting a skip to every one of them is a
+ * single prefix update. Both are O(log n) per order.
+ *
+ * An earlier arrival is skipped at least as often as any later one still
+ * waiting, so the oldest waiting order always has the most skips. Once it has
+ * been skipped {@code max-skips} times it is {@link #overdue()} and the
+ * assignment engine boosts it to the top of the waiting queue; serving
+ * anything else past it is a violation.
+ */
+@Component
+@Slf4j
+public class FairnessTracker {
+
+    /** Skips of one served order and whether it passed an order already at the cap */
+    public record Served(int skipped, boolean violation) {}
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Served NOT_TRACKED = new Served(0, false);
+
+    private final int maxSkips;
+    private final boolean enforce;
+
+    // Arrival numbers are offset by `base` into the trees; compaction moves it forward
+    private final Map<String, Integer> sequenceById = new HashMap<>();
+    private String[] idAt = new String[INITIAL_CAPACITY];
+    private int[] waitingTree = new int[INITIAL_CAPACITY + 1];
+    private int[] skipTree = new int[INITIAL_CAPACITY + 1];
+    private int base;
+    private int nextSequence;
+
+    // Pairs of (served order, order still waiting) seen so far, and how many were out of arrival order
+    private long passedPairs;
+    private long skippedPairs;
+    private long violations;
+
+    public FairnessTracker(MeterRegistry registry,
+                           @Value("${queue.fairness.max-skips:3}") int maxSkips,
+                           @Value("${queue.fairness.enforce:true}") boolean enforce) {
+        this.maxSkips = maxSkips;
+        this.enforce = enforce;
+        Gauge.builder("queue.fairness.score", this, FairnessTracker::fairnessScore)
+            .description("Percent of served/waiting order pairs served in arrival order").register(registry);
+        FunctionCounter.builder("queue.fairness.violations", this, FairnessTracker::getViolations)
+            .description("Orders served past an order already skipped max-skips times").register(registry);
+    }
+
+    public int getMaxSkips() {
+        return maxSkips;
+    }
+
+    /**
+     * Start tracking an order that joined the queue. Orders must arrive in
+     * arrival-time order; an id already tracked is ignored.
+     */
+    public synchronized void arrived(String orderId) {
+        if (sequenceById.containsKey(orderId)) return;
+        if (nextSequence - base == idAt.length) {
+            compact();
+        }
+        int sequence = nextSequence++;
+        sequenceById.put(orderId, sequence);
+        idAt[sequence - base] = orderId;
+        add(waitingTree, sequence - base, 1);
+    }
+
+    /**
+     * An order left the queue to be prepared. Every earlier arrival still
+     * waiting is credited one skip.
+     */
+    public synchronized Served served(String orderId, String baristaId) {
+        Integer sequence = sequenceById.remove(orderId);
+        if (sequence == null) return NOT_TRACKED;
+        int index = sequence - base;
+        int skipped = prefix(waitingTree, index - 1);
+        boolean violation = skipped > 0 && skipsAt(oldestIndex()) >= maxSkips;
+
+        passedPairs += prefix(waitingTree, idAt.length - 1) - 1;
+        skippedPairs += skipped;
+        add(waitingTree, index, -1);
+        idAt[index] = null;
+        if (skipped > 0) {
+            add(skipTree, 0, 1);
+            add(skipTree, index, -1);
+        }
+        if (violation) {
+            violations++;
+            log.warn("❌ Fairness violation: order {} served by {} past an order skipped {}+ times",
+                orderId, baristaId != null ? baristaId : "counter", maxSkips);
+        }
+        return new Served(skipped, violation);
+    }
+
+    /**
+     * Stop tracking an order without counting it as served
+     */
+    public synchronized void dropped(String orderId) {
+        Integer sequence = sequenceById.remove(orderId);
+        if (sequence == null) return;
+        int index = sequence - base;
+        add(waitingTree, index, -1);
+        idAt[index] = null;
+    }
+
+    /**
+     * Id of the oldest waiting order if it has reached the skip cap and the
+     * cap is enforced, otherwise null
+     */
+    public synchronized String overdue() {
+        if (!enforce || sequenceById.isEmpty()) return null;
+        int oldest = oldestIndex();
+        return skipsAt(oldest) >= maxSkips ? idAt[oldest] : null;
+    }
+
+    /**
+     * 100 when every order was served before all later arrivals, falling with
+     * the share of waiting orders that saw a later arrival served first
+     */
+    public synchronized double fairnessScore() {
+        if (passedPairs == 0) return 100.0;
+        return 100.0 * (passedPairs - skippedPairs) / passedPairs;
+    }
+
+    public synchronized long getViolations() {
+        return violations;
+    }
+
+    /**
+     * Times each waiting order has been skipped so far, oldest first; orders
+     * never skipped are left out
+     */
+    public synchronized Map<String, Integer> skipCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int end = nextSequence - base;
+        for (int index = 0; index < end; index++) {
+            if (idAt[index] == null) continue;
+            int skips = skipsAt(index);
+            // Skip counts never rise toward later arrivals, so the first zero ends the list
+            if (skips == 0) break;
+            counts.put(idAt[index], skips);
+        }
+        return counts.isEmpty() ? Collections.emptyMap() : counts;
+    }
+
+    private int skipsAt(int index) {
+        return prefix(skipTree, index);
+    }
+
+    // Smallest index whose prefix count of waiting orders reaches one
+    private int oldestIndex() {
+        int position = 0;
+        for (int step = Integer.highestOneBit(idAt.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= idAt.length && waitingTree[next] == 0) {
+                position = next;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Renumber the waiting orders from zero in arrival order, keeping their
+     * skip counts, and grow the trees if more than half full
+     */
+    private void compact() {
+        int waiting = sequenceById.size();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(waiting, 1)) * 4);
+        String[] ids = new String[capacity];
+        int[] skips = new int[waiting];
+        int count = 0;
+        for (int index = 0; index < idAt.length; index++) {
+            if (idAt[index] == null) continue;
+            skips[count] = skipsAt(index);
+            ids[count++] = idAt[index];
+        }
+        idAt = ids;
+        waitingTree = new int[capacity + 1];
+        skipTree = new int[capacity + 1];
+        base = nextSequence;
+        for (int index = 0; index < count; index++) {
+            sequenceById.put(ids[index], base + index);
+            add(waitingTree, index, 1);
+            add(skipTree, index, skips[index]);
+            add(skipTree, index + 1, -skips[index]);
+        }
+        nextSequence = base + count;
+    }
+
+    private static void add(int[] tree, int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of positions 0..index; -1 gives zero
+    private static int prefix(int[] tree, int index) {
+        int sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,29 @@
+package com.coffeequeue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Mock transport that only logs messages. Active unless notifications.whatsapp.mode=twilio.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.whatsapp.mode", havingValue = "mock", matchIfMissing = true)
+@Slf4j
+public class LoggingMessagingProvider implements MessagingProvider {
+
+    public LoggingMessagingProvider() {
+        log.info("📱 WhatsApp Notification Service initialized in MOCK MODE.");
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String body) {
+        log.info("======================================================");
+        log.info("📱 MOCK WHATSAPP SENT TO: {}", toPhoneNumber);
+        log.info("💬 MESSAGE: {}", body);
+        log.info("======================================================");
+        return "mock_" + UUID.randomUUID();
+    }
+}
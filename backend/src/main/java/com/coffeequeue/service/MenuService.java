@@ -1,33 +1,90 @@
 package com.coffeequeue.service;
 
 import com.coffeequeue.model.Drink;
+import com.coffeequeue.model.MenuSnapshot;
+import com.coffeequeue.model.OrderItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Holds the menu as an immutable {@link MenuSnapshot}. The response JSON and
+ * its ETag are computed once per published menu, not per request.
+ */
 @Service
 public class MenuService {
-    
-    private final Map<String, Drink> menu = new LinkedHashMap<>();
-    
-    public MenuService() {
-        initializeMenu();
+
+    /** Prep minutes assumed for drinks that are not on the menu */
+    public static final int DEFAULT_PREP_TIME = 5;
+
+    private final ObjectMapper objectMapper;
+    private volatile MenuSnapshot snapshot;
+
+    public MenuService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        publish(initializeMenu());
     }
-    
-    private void initializeMenu() {
+
+    private Map<String, Drink> initializeMenu() {
+        Map<String, Drink> menu = new LinkedHashMap<>();
         menu.put("cold-brew", new Drink("Cold Brew", 1, 0.25, 120));
         menu.put("espresso", new Drink("Espresso", 2, 0.20, 150));
         menu.put("americano", new Drink("Americano", 2, 0.15, 140));
         menu.put("cappuccino", new Drink("Cappuccino", 4, 0.20, 180));
         menu.put("latte", new Drink("Latte", 4, 0.12, 200));
         menu.put("mocha", new Drink("Specialty (Mocha)", 6, 0.08, 250));
+        return menu;
+    }
+
+    /**
+     * Replace the menu with a new version. Readers holding the previous
+     * snapshot keep a consistent view of it.
+     */
+    public synchronized MenuSnapshot publish(Map<String, Drink> drinks) {
+        Map<String, Drink> menu = Collections.unmodifiableMap(new LinkedHashMap<>(drinks));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Map.of("menu", menu));
+            long version = snapshot != null ? snapshot.getVersion() + 1 : 1;
+            // Content hash, so the tag stays valid across restarts and instances
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            snapshot = new MenuSnapshot(version, menu, json, etag);
+            return snapshot;
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Menu could not be serialized", e);
+        }
     }
-    
+
+    public MenuSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public Map<String, Drink> getMenu() {
-        return new LinkedHashMap<>(menu);
+        return snapshot.getDrinks();
     }
-    
+
     public Drink getDrink(String drinkType) {
-        return menu.get(drinkType);
+        return snapshot.getDrinks().get(drinkType);
+    }
+
+    /**
+     * Total prep minutes for a list of items
+     */
+    public int getTotalPrepTime(List<OrderItem> items) {
+        MenuSnapshot menu = snapshot;
+        int total = 0;
+        for (OrderItem item : items) {
+            Drink drink = menu.getDrinks().get(item.getDrinkType());
+            total += (drink != null ? drink.getPrepTime() : DEFAULT_PREP_TIME) * item.getQuantity();
+        }
+        return total;
     }
 }
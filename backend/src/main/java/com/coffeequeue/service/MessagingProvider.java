@@ -0,0 +1,14 @@
+package com.coffeequeue.service;
+
+/**
+ * Outbound message transport used by {@link NotificationDispatcher}.
+ * Implementations may block; they are only ever called from the dispatcher thread.
+ */
+public interface MessagingProvider {
+
+    /**
+     * Deliver a message, returning the provider's message id.
+     * Throws on any failure so the dispatcher can retry.
+     */
+    String send(String toPhoneNumber, String body) throws Exception;
+}
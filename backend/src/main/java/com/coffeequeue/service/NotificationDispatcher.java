@@ -0,0 +1,210 @@
+package com.coffeequeue.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded outbound message queue drained by a dedicated sender thread.
+ *
+ * {@link #enqueue} never blocks the caller: a full queue drops the message.
+ * The sender is rate limited, retries failures with exponential backoff, and
+ * dead-letters messages that exhaust their attempts.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final MessagingProvider messagingProvider;
+    private final BlockingQueue<OutboundMessage> outbound;
+    private final Deque<OutboundMessage> deadLetters = new ArrayDeque<>();
+
+    private final int deadLetterCapacity;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long sendIntervalNanos;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+
+    private ExecutorService sender;
+    private ScheduledExecutorService retryScheduler;
+    private long nextSendNanos;
+
+    public NotificationDispatcher(MessagingProvider messagingProvider,
+                                  @Value("${notifications.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${notifications.dead-letter-capacity:100}") int deadLetterCapacity,
+                                  @Value("${notifications.max-attempts:4}") int maxAttempts,
+                                  @Value("${notifications.retry-backoff-ms:1000}") long retryBackoffMs,
+                                  @Value("${notifications.rate-per-second:5}") double ratePerSecond) {
+        this.messagingProvider = messagingProvider;
+        this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.sendIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    }
+
+    @PostConstruct
+    public void start() {
+        sender = Executors.newSingleThreadExecutor(r -> daemon(r, "notification-sender"));
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "notification-retry"));
+        sender.execute(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() {
+        retryScheduler.shutdownNow();
+        sender.shutdownNow();
+        if (!outbound.isEmpty()) {
+            log.warn("Notification dispatcher stopped with {} messages undelivered", outbound.size());
+        }
+    }
+
+    /**
+     * Queue a message for delivery. Returns false if the queue is full and the message was dropped.
+     */
+    public boolean enqueue(String toPhoneNumber, String body) {
+        if (toPhoneNumber == null || toPhoneNumber.isEmpty()) {
+            return false;
+        }
+        if (outbound.offer(new OutboundMessage(toPhoneNumber, body))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        log.warn("Notification queue full, dropping message to {}", toPhoneNumber);
+        return false;
+    }
+
+    public int getBacklog() {
+        return outbound.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backlog", outbound.size());
+        stats.put("pendingRetries", pendingRetries.get());
+        stats.put("sent", sent.get());
+        stats.put("failedAttempts", failed.get());
+        stats.put("retried", retried.get());
+        stats.put("dropped", dropped.get());
+        stats.put("deadLettered", deadLettered.get());
+        return stats;
+    }
+
+    public List<OutboundMessage> getDeadLetters() {
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters);
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                OutboundMessage message = outbound.take();
+                awaitRateLimit();
+                deliver(message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void deliver(OutboundMessage message) {
+        message.attempts++;
+        try {
+            String sid = messagingProvider.send(message.getTo(), message.getBody());
+            sent.incrementAndGet();
+            log.info("✅ WhatsApp message sent successfully. SID: {}", sid);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            message.lastError = e.getMessage();
+            if (message.attempts >= maxAttempts) {
+                deadLetter(message);
+                return;
+            }
+            long delay = retryBackoffMs << (message.attempts - 1);
+            log.warn("❌ WhatsApp send to {} failed (attempt {}/{}), retrying in {} ms: {}",
+                message.getTo(), message.attempts, maxAttempts, delay, e.getMessage());
+            pendingRetries.incrementAndGet();
+            retryScheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                retried.incrementAndGet();
+                if (!outbound.offer(message)) {
+                    deadLetter(message);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void deadLetter(OutboundMessage message) {
+        deadLettered.incrementAndGet();
+        log.error("❌ Failed to send WhatsApp message to {} after {} attempts: {}",
+            message.getTo(), message.attempts, message.lastError);
+        synchronized (deadLetters) {
+            if (deadLetters.size() == deadLetterCapacity) {
+                deadLetters.removeFirst();
+            }
+            deadLetters.addLast(message);
+        }
+    }
+
+    // Token bucket of size one: sends are spaced at least sendIntervalNanos apart
+    private void awaitRateLimit() throws InterruptedException {
+        long now = System.nanoTime();
+        if (nextSendNanos > now) {
+            LockSupport.parkNanos(nextSendNanos - now);
+            if (Thread.interrupted()) throw new InterruptedException();
+            now = System.nanoTime();
+        }
+        nextSendNanos = Math.max(now, nextSendNanos) + sendIntervalNanos;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public static class OutboundMessage {
+        private final String to;
+        private final String body;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile int attempts;
+        private volatile String lastError;
+
+        OutboundMessage(String to, String body) {
+            this.to = to;
+            this.body = body;
+        }
+
+        public String getTo() { return to; }
+        public String getBody() { return body; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public int getAttempts() { return attempts; }
+        public String getLastError() { return lastError; }
+    }
+}
@@ -0,0 +1,228 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Streams order history to analytics clients as NDJSON or CSV.
+ *
+ * Orders are written one at a time as {@link QueueService#forEachOrder}
+ * reads them, so heap use does not grow with the size of the export. Exports
+ * run as {@link WebAsyncTask}s on this exporter's own pool, with their own
+ * timeout, rather than on request threads or the MVC async defaults. At most
+ * {@code queue.export.max-concurrent} run at once; the live API keeps the
+ * rest of the MongoDB pool.
+ */
+@Component
+@Slf4j
+public class OrderExporter {
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() { return mediaType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final String CSV_HEADER = "id,status,customerType,regular,customerPhone,items,totalPrepTime,"
+        + "priorityScore,assignedBarista,arrivalTime,startTime,completionTime";
+
+    private final QueueService queueService;
+    private final ObjectWriter jsonWriter;
+    private final Semaphore running;
+    private final int maxConcurrent;
+    private final long timeoutMs;
+    private ExecutorService pool;
+    private AsyncTaskExecutor executor;
+
+    public OrderExporter(QueueService queueService, ObjectMapper objectMapper,
+                         @Value("${queue.export.max-concurrent:2}") int maxConcurrent,
+                         @Value("${queue.export.timeout-ms:600000}") long timeoutMs) {
+        this.queueService = queueService;
+        // One value per line, and let the response buffer decide when to flush
+        this.jsonWriter = objectMapper.writer()
+            .withRootValueSeparator("")
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.running = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(maxConcurrent, r -> {
+            Thread thread = new Thread(r, "order-export-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = new TaskExecutorAdapter(pool);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Reserve an export slot and return the task that streams the export to
+     * {@code out}, or null if the maximum number of exports is already running.
+     * The slot is held until the task stops reading orders, so a timed-out
+     * export keeps it until its thread has seen the interrupt and closed its
+     * cursor; a task that never started frees it on completion.
+     */
+    public WebAsyncTask<Void> open(Format format, Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                   OutputStream out) {
+        if (!running.tryAcquire()) return null;
+        // Claimed by whichever comes first: the task starting, or the request completing without it
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncTask<Void> task = new WebAsyncTask<>(timeoutMs, executor, () -> {
+            if (!claimed.compareAndSet(false, true)) return null;
+            long start = System.nanoTime();
+            try {
+                long exported = format == Format.CSV ? writeCsv(status, from, to, out) : writeNdjson(status, from, to, out);
+                log.info("✅ Exported {} orders as {} in {} ms", exported, format.getExtension(),
+                    (System.nanoTime() - start) / 1_000_000);
+            } catch (CancellationException e) {
+                log.warn("Order export stopped after {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; nothing left to answer
+                log.warn("Order export aborted: {}", e.getCause().getMessage());
+            } finally {
+                running.release();
+            }
+            return null;
+        });
+        task.onTimeout(() -> {
+            log.warn("Order export timed out after {} ms", timeoutMs);
+            return null;
+        });
+        task.onCompletion(() -> {
+            if (claimed.compareAndSet(false, true)) running.release();
+        });
+        return task;
+    }
+    
+    // A timed-out task is interrupted; stop reading so the cursor or archive file is closed
+    private static Consumer<Order> untilInterrupted(Consumer<Order> write) {
+        return order -> {
+            if (Thread.interrupted()) {
+                throw new CancellationException();
+            }
+            write.accept(order);
+        };
+    }
+
+    private long writeNdjson(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        long[] count = new long[1];
+        JsonGenerator generator = jsonWriter.createGenerator(out);
+        queueService.forEachOrder(status, from, to, untilInterrupted(order -> {
+            try {
+                jsonWriter.writeValue(generator, order);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }));
+        generator.flush();
+        return count[0];
+    }
+
+    private long writeCsv(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        long[] count = new long[1];
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        StringBuilder line = new StringBuilder(256);
+        queueService.forEachOrder(status, from, to, untilInterrupted(order -> {
+            line.setLength(0);
+            appendCsvRow(line, order);
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }));
+        writer.flush();
+        return count[0];
+    }
+
+    private static void appendCsvRow(StringBuilder line, Order order) {
+        StringBuilder items = new StringBuilder();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                if (items.length() > 0) items.append("; ");
+                items.append(item.getDrinkType()).append(" x").append(item.getQuantity());
+            }
+        }
+        appendCsv(line, order.getId()).append(',');
+        appendCsv(line, order.getStatus()).append(',');
+        appendCsv(line, order.getCustomerType()).append(',');
+        line.append(order.isRegular()).append(',');
+        appendCsv(line, order.getCustomerPhone()).append(',');
+        appendCsv(line, items).append(',');
+        line.append(order.getTotalPrepTime()).append(',');
+        line.append(order.getPriorityScore()).append(',');
+        appendCsv(line, order.getAssignedBarista()).append(',');
+        appendCsv(line, order.getArrivalTime()).append(',');
+        appendCsv(line, order.getStartTime()).append(',');
+        appendCsv(line, order.getCompletionTime()).append("\r\n");
+    }
+
+    // RFC 4180: quote fields containing a delimiter, quote or line break, doubling inner quotes
+    private static StringBuilder appendCsv(StringBuilder line, Object value) {
+        if (value == null) return line;
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
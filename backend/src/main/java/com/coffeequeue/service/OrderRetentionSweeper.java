@@ -0,0 +1,106 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.Order;
+import com.coffeequeue.repository.InMemoryOrderStore;
+import com.coffeequeue.repository.OrderArchive;
+import com.coffeequeue.repository.OrderJournal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory store sized to active orders.
+ *
+ * Completed orders older than the retention window are appended to the
+ * {@link OrderArchive}, then dropped from the hot store and the journal.
+ * The archive write comes first, so a crash in between leaves a duplicate
+ * rather than a lost order; the duplicate is dropped from the store at the
+ * next startup, so the archive and the store never share an id.
+ */
+@Component
+@Slf4j
+public class OrderRetentionSweeper {
+
+    private final InMemoryOrderStore inMemoryOrders;
+    private final OrderArchive archive;
+    private final OrderJournal journal;
+    private final Clock clock;
+    private final long retentionMinutes;
+
+    public OrderRetentionSweeper(InMemoryOrderStore inMemoryOrders, OrderArchive archive, OrderJournal journal,
+                                 Clock clock,
+                                 @Value("${queue.retention.completed-minutes:30}") long retentionMinutes) {
+        this.inMemoryOrders = inMemoryOrders;
+        this.archive = archive;
+        this.journal = journal;
+        this.clock = clock;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /**
+     * Drop completed orders the journal restored but the archive already
+     * holds, left by a crash after or partway through an archive write.
+     * Only day files from the earliest such completion on are read.
+     */
+    @PostConstruct
+    public void dropArchived() {
+        Set<String> completed = new HashSet<>();
+        LocalDate firstDay = null;
+        boolean undated = false;
+        for (Order order : inMemoryOrders.findByStatus(Order.OrderStatus.COMPLETED)) {
+            completed.add(order.getId());
+            LocalDateTime at = order.getCompletionTime() != null ? order.getCompletionTime() : order.getArrivalTime();
+            if (at == null) {
+                undated = true;
+            } else if (firstDay == null || at.toLocalDate().isBefore(firstDay)) {
+                firstDay = at.toLocalDate();
+            }
+        }
+        if (completed.isEmpty()) return;
+        int[] dropped = {0};
+        archive.forEach(undated ? null : firstDay, order -> {
+            if (completed.remove(order.getId())) {
+                inMemoryOrders.remove(order.getId());
+                journal.removed(order.getId());
+                dropped[0]++;
+            }
+        });
+        if (dropped[0] > 0) {
+            log.info("Dropped {} completed orders from memory that were already archived", dropped[0]);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${queue.retention.sweep-interval-ms:60000}")
+    public void sweep() {
+        sweep(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Move completed orders past the retention window to the archive. Returns the number moved.
+     */
+    public int sweep(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusMinutes(retentionMinutes);
+        List<Order> expired = inMemoryOrders.findByStatus(Order.OrderStatus.COMPLETED).stream()
+            .filter(o -> o.getCompletionTime() == null || o.getCompletionTime().isBefore(cutoff))
+            .collect(Collectors.toList());
+        if (expired.isEmpty() || !archive.append(expired)) {
+            return 0;
+        }
+        for (Order order : expired) {
+            inMemoryOrders.remove(order.getId());
+            journal.removed(order.getId());
+        }
+        log.info("Archived {} completed orders, {} left in memory", expired.size(), inMemoryOrders.size());
+        return expired.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.PaymentResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment provider. Implementations must not block the calling thread;
+ * the returned future completes when the provider responds.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<PaymentResult> charge(double amount);
+}
@@ -0,0 +1,92 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.PaymentResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs payments through the {@link PaymentGateway} with idempotency-key handling.
+ *
+ * The first request for a key starts the charge; retries with the same key,
+ * whether still in flight or already finished, get the same result instead of
+ * charging again. Failed attempts are forgotten so the customer can retry.
+ * A key is bound to the amount it first charged; reusing it for a different
+ * amount is rejected rather than replaying the old charge.
+ */
+@Service
+@Slf4j
+public class PaymentService {
+
+    private final PaymentGateway paymentGateway;
+    private final long idempotencyTtlMs;
+    private final Map<String, IdempotentPayment> payments = new ConcurrentHashMap<>();
+
+    public PaymentService(PaymentGateway paymentGateway,
+                          @Value("${payments.idempotency-ttl-minutes:1440}") long idempotencyTtlMinutes) {
+        this.paymentGateway = paymentGateway;
+        this.idempotencyTtlMs = TimeUnit.MINUTES.toMillis(idempotencyTtlMinutes);
+    }
+
+    /**
+     * Charge {@code amount}, or replay the charge already made under this key.
+     *
+     * @throws IllegalStateException if the key was used for a different amount
+     */
+    public CompletableFuture<PaymentResult> processPayment(String idempotencyKey, double amount) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return paymentGateway.charge(amount);
+        }
+        long amountCents = Math.round(amount * 100);
+        IdempotentPayment payment = payments.computeIfAbsent(idempotencyKey,
+            key -> new IdempotentPayment(new CompletableFuture<>(), amountCents, System.currentTimeMillis()));
+        if (payment.amountCents != amountCents) {
+            throw new IllegalStateException("Idempotency key " + idempotencyKey + " was used for a different amount");
+        }
+        if (payment.started.compareAndSet(false, true)) {
+            CompletableFuture<PaymentResult> charge;
+            try {
+                charge = paymentGateway.charge(amount);
+            } catch (RuntimeException e) {
+                charge = CompletableFuture.failedFuture(e);
+            }
+            charge.whenComplete((result, error) -> {
+                if (error != null) {
+                    payments.remove(idempotencyKey, payment);
+                    payment.result.completeExceptionally(error);
+                } else {
+                    payment.result.complete(result);
+                }
+            });
+        } else {
+            log.info("Replaying payment for idempotency key {}", idempotencyKey);
+        }
+        return payment.result;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredKeys() {
+        long cutoff = System.currentTimeMillis() - idempotencyTtlMs;
+        payments.entrySet().removeIf(e -> e.getValue().createdAt < cutoff && e.getValue().result.isDone());
+    }
+
+    private static final class IdempotentPayment {
+        private final CompletableFuture<PaymentResult> result;
+        private final long amountCents;
+        private final long createdAt;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private IdempotentPayment(CompletableFuture<PaymentResult> result, long amountCents, long createdAt) {
+            this.result = result;
+            this.amountCents = amountCents;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.PolicyComparison;
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.service.policy.SchedulingPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs the candidate scheduling policies in shadow against live traffic.
+ *
+ * Each evaluation re-orders the orders currently waiting under every policy
+ * and compares that with the live order of the active one: rank agreement,
+ * whether the same order would be served next, and the waits and timeouts
+ * predicted by the {@link EtaEngine} if the queue ran that way with the
+ * baristas as they are now. Nothing about the live queue changes. Results
+ * refresh every {@code queue.policy.shadow-interval-ms} and are exported as
+ * gauges tagged by policy.
+ */
+@Component
+public class PolicyShadowEvaluator {
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final WaitingQueue waitingQueue;
+    private final PriorityScorer priorityScorer;
+    private final EtaEngine etaEngine;
+    private final Clock clock;
+
+    private volatile Map<String, PolicyComparison> latest = Map.of();
+
+    public PolicyShadowEvaluator(WaitingQueue waitingQueue, PriorityScorer priorityScorer, EtaEngine etaEngine,
+                                 Clock clock, MeterRegistry registry) {
+        this.waitingQueue = waitingQueue;
+        this.priorityScorer = priorityScorer;
+        this.etaEngine = etaEngine;
+        this.clock = clock;
+
+        for (SchedulingPolicy policy : priorityScorer.getPolicies()) {
+            String name = policy.name();
+            gauge(registry, "queue.policy.rank.agreement", name, PolicyComparison::getRankAgreement,
+                "Kendall rank agreement of the policy's ordering with the live queue");
+            gauge(registry, "queue.policy.predicted.wait", name, PolicyComparison::getMeanPredictedWaitMinutes,
+                "Mean predicted wait of the waiting orders under the policy, in minutes");
+            gauge(registry, "queue.policy.predicted.timeouts", name, c -> c.getPredictedTimeouts(),
+                "Waiting orders predicted to time out under the policy");
+            Gauge.builder("queue.policy.active", priorityScorer, scorer -> scorer.getActivePolicy() == policy ? 1 : 0)
+                .description("1 for the active scheduling policy").tag("policy", name).register(registry);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${queue.policy.shadow-interval-ms:15000}")
+    public void refresh() {
+        evaluate();
+    }
+
+    public List<PolicyComparison> evaluate() {
+        return evaluate(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Compare every policy's ordering of the current waiting orders with the live one
+     */
+    public List<PolicyComparison> evaluate(LocalDateTime now) {
+        List<Order> live = waitingQueue.snapshot();
+        SchedulingPolicy active = priorityScorer.getActivePolicy();
+        long nowMillis = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Map<String, Integer> liveRank = new HashMap<>(live.size() * 2);
+        for (int i = 0; i < live.size(); i++) {
+            liveRank.put(live.get(i).getId(), i);
+        }
+
+        List<PolicyComparison> comparisons = new ArrayList<>();
+        Map<String, PolicyComparison> byPolicy = new LinkedHashMap<>();
+        for (SchedulingPolicy policy : priorityScorer.getPolicies()) {
+            List<Order> ordering = policy == active ? live : reorder(live, policy, now, waitingQueue::isBoosted);
+            PolicyComparison comparison = compare(policy, policy == active, live, liveRank, ordering, nowMillis);
+            comparisons.add(comparison);
+            byPolicy.put(policy.name(), comparison);
+        }
+        latest = byPolicy;
+        return comparisons;
+    }
+
+    private PolicyComparison compare(SchedulingPolicy policy, boolean active, List<Order> live,
+                                     Map<String, Integer> liveRank, List<Order> ordering, long nowMillis) {
+        int n = ordering.size();
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = liveRank.get(ordering.get(i).getId());
+        }
+        double agreement = n < 2 ? 1.0 : 1.0 - 4.0 * inversions(ranks) / ((double) n * (n - 1));
+        boolean sameNext = n == 0 || ordering.get(0) == live.get(0);
+
+        long[] starts = etaEngine.predictStarts(ordering, nowMillis);
+        double totalWait = 0;
+        double maxWait = 0;
+        int timed = 0;
+        int timeouts = 0;
+        for (int i = 0; i < n; i++) {
+            Order order = ordering.get(i);
+            if (starts[i] < 0 || order.getArrivalTime() == null) continue;
+            long arrival = order.getArrivalTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            double wait = (starts[i] + order.getTotalPrepTime() * MINUTE_MILLIS - arrival) / (double) MINUTE_MILLIS;
+            totalWait += wait;
+            maxWait = Math.max(maxWait, wait);
+            timed++;
+            if (wait >= PriorityScorer.URGENT_WAIT_MINUTES) timeouts++;
+        }
+        return new PolicyComparison(policy.name(), active, agreement, sameNext,
+            timed > 0 ? totalWait / timed : 0.0, maxWait, timeouts);
+    }
+
+    // Waiting orders as the policy would rank them now, skip-cap boosts included; ties go by arrival, then id,
+    // as in the live queue
+    private static List<Order> reorder(List<Order> live, SchedulingPolicy policy, LocalDateTime now,
+                                       Predicate<String> boosted) {
+        int n = live.size();
+        double[] scores = new double[n];
+        Integer[] indexes = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Order order = live.get(i);
+            long waitMinutes = order.getArrivalTime() != null
+                ? ChronoUnit.MINUTES.between(order.getArrivalTime(), now) : 0;
+            scores[i] = policy.score(order.getTotalPrepTime(), CustomerType.of(order), waitMinutes)
+                + (boosted.test(order.getId()) ? WaitingQueue.SKIP_CAP_BOOST : 0);
+            indexes[i] = i;
+        }
+        Comparator<Integer> byScore = (a, b) -> Double.compare(scores[b], scores[a]);
+        Arrays.sort(indexes, byScore
+            .thenComparing(i -> live.get(i).getArrivalTime(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(i -> live.get(i).getId()));
+        List<Order> ordering = new ArrayList<>(n);
+        for (int index : indexes) {
+            ordering.add(live.get(index));
+        }
+        return ordering;
+    }
+
+    // Pairs out of order, counted by merge sort in O(n log n)
+    private static long inversions(int[] values) {
+        int[] buffer = new int[values.length];
+        long count = 0;
+        for (int width = 1; width < values.length; width *= 2) {
+            for (int lo = 0; lo < values.length - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, values.length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    if (values[i] <= values[j]) {
+                        buffer[k++] = values[i++];
+                    } else {
+                        count += mid - i;
+                        buffer[k++] = values[j++];
+                    }
+                }
+                while (i < mid) buffer[k++] = values[i++];
+                while (j < hi) buffer[k++] = values[j++];
+                System.arraycopy(buffer, lo, values, lo, hi - lo);
+            }
+        }
+        return count;
+    }
+
+    private void gauge(MeterRegistry registry, String name, String policy,
+                       ToDoubleFunction<PolicyComparison> value, String description) {
+        Gauge.builder(name, this, evaluator -> {
+                PolicyComparison comparison = evaluator.latest.get(policy);
+                return comparison != null ? value.applyAsDouble(comparison) : Double.NaN;
+            })
+            .description(description).tag("policy", policy).register(registry);
+    }
+}
@@ -0,0 +1,127 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Re-scores waiting orders as they age.
+ *
+ * Each tracked order is parked in the time bucket of the next minute at which
+ * its score changes. A scheduled sweep drains only the buckets that have come
+ * due, re-scores those orders inside the {@link WaitingQueue} from its encoded
+ * fields (an O(log n) sift each) and parks them again at their following
+ * threshold. Each sweep's new scores go out as a single re-rank event.
+ */
+@Component
+@Slf4j
+public class PriorityAgingEngine {
+
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final WaitingQueue waitingQueue;
+    private final QueueEventPublisher queueEventPublisher;
+    private final Clock clock;
+
+    // bucket (epoch seconds) -> order ids due for re-scoring in that second
+    private final TreeMap<Long, Set<String>> buckets = new TreeMap<>();
+    private final Map<String, Long> bucketByOrder = new HashMap<>();
+
+    public PriorityAgingEngine(WaitingQueue waitingQueue, QueueEventPublisher queueEventPublisher, Clock clock) {
+        this.waitingQueue = waitingQueue;
+        this.queueEventPublisher = queueEventPublisher;
+        this.clock = clock;
+    }
+
+    /**
+     * Bring a queued order's score up to date and schedule its next re-score.
+     */
+    public void track(Order order, LocalDateTime now) {
+        schedule(order.getId(), waitingQueue.rescore(order.getId(), toMillis(now)));
+    }
+
+    public synchronized void untrack(String orderId) {
+        Long bucket = bucketByOrder.remove(orderId);
+        if (bucket != null) {
+            removeFromBucket(bucket, orderId);
+        }
+    }
+
+    public synchronized int trackedCount() {
+        return bucketByOrder.size();
+    }
+
+    @Scheduled(fixedRateString = "${queue.aging.sweep-interval-ms:5000}")
+    public void sweep() {
+        int rescored = sweep(LocalDateTime.now(clock));
+        if (rescored > 0) {
+            log.debug("Aging sweep re-scored {} orders", rescored);
+        }
+    }
+
+    /**
+     * Re-score every order whose threshold is at or before {@code now}.
+     */
+    public synchronized int sweep(LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        long nowBucket = Math.floorDiv(nowMillis, BUCKET_MILLIS);
+        // Re-score and publish in one step so the event's version follows the queue change
+        Map<String, Double> rescored = queueEventPublisher.inOrder(() -> {
+            Map<String, Double> scores = new LinkedHashMap<>();
+            Map.Entry<Long, Set<String>> due;
+            while ((due = buckets.firstEntry()) != null && due.getKey() <= nowBucket) {
+                buckets.remove(due.getKey());
+                for (String orderId : due.getValue()) {
+                    bucketByOrder.remove(orderId);
+                    long nextChange = waitingQueue.rescore(orderId, nowMillis);
+                    if (nextChange != WaitingQueue.NOT_QUEUED) {
+                        schedule(orderId, nextChange);
+                        scores.put(orderId, waitingQueue.score(orderId));
+                    }
+                }
+            }
+            queueEventPublisher.ordersReranked(scores);
+            return scores;
+        });
+        return rescored.size();
+    }
+
+    private synchronized void schedule(String orderId, long nextChangeMillis) {
+        if (nextChangeMillis < 0) {
+            untrack(orderId);
+            return;
+        }
+        // Park in the bucket after the threshold so a sweep never sees it early
+        long bucket = Math.floorDiv(nextChangeMillis, BUCKET_MILLIS) + 1;
+        Long previous = bucketByOrder.put(orderId, bucket);
+        if (previous != null && previous != bucket) {
+            removeFromBucket(previous, orderId);
+        }
+        buckets.computeIfAbsent(bucket, b -> new HashSet<>()).add(orderId);
+    }
+
+    private void removeFromBucket(long bucket, String orderId) {
+        Set<String> ids = buckets.get(bucket);
+        if (ids != null) {
+            ids.remove(orderId);
+            if (ids.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
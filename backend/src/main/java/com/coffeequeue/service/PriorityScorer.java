@@ -0,0 +1,70 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.service.policy.SchedulingPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores orders with the active {@link SchedulingPolicy}.
+ *
+ * Every registered policy stays available by name; switching the active one
+ * takes effect for the next score, and {@link QueueService#switchPolicy}
+ * re-scores the orders already waiting.
+ */
+@Component
+public class PriorityScorer {
+
+    /** Wait at which the urgency boost starts; orders waiting this long count as timed out. */
+    public static final long URGENT_WAIT_MINUTES = 8;
+
+    private final Map<String, SchedulingPolicy> policies = new LinkedHashMap<>();
+    private volatile SchedulingPolicy activePolicy;
+
+    public PriorityScorer(List<SchedulingPolicy> policies,
+                          @Value("${queue.policy.active:weighted}") String activePolicy) {
+        for (SchedulingPolicy policy : policies) {
+            this.policies.put(policy.name(), policy);
+        }
+        activate(activePolicy);
+    }
+
+    public SchedulingPolicy getActivePolicy() {
+        return activePolicy;
+    }
+
+    public Collection<SchedulingPolicy> getPolicies() {
+        return Collections.unmodifiableCollection(policies.values());
+    }
+
+    /**
+     * Make the named policy the active one and return the one it replaced
+     */
+    public SchedulingPolicy activate(String name) {
+        SchedulingPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown scheduling policy: " + name);
+        }
+        SchedulingPolicy previous = activePolicy;
+        activePolicy = policy;
+        return previous;
+    }
+
+    public double calculatePriorityScore(Order order, LocalDateTime now) {
+        if (order.getArrivalTime() == null) return 0;
+        return score(order, ChronoUnit.MINUTES.between(order.getArrivalTime(), now));
+    }
+
+    public double score(Order order, long waitMinutes) {
+        return activePolicy.score(order.getTotalPrepTime(), CustomerType.of(order), waitMinutes);
+    }
+}
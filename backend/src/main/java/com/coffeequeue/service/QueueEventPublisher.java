@@ -0,0 +1,96 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.QueueBarista;
+import com.coffeequeue.dto.QueueEvent;
+import com.coffeequeue.dto.QueueOrder;
+import com.coffeequeue.dto.QueueSnapshot;
+import com.coffeequeue.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes waiting-queue deltas to STOMP subscribers. Orders go out as
+ * {@link QueueOrder}, without the customer's phone number.
+ *
+ * Every event carries a monotonically increasing version. Clients load a
+ * {@link #snapshot()} and then apply only events newer than its version;
+ * the events are idempotent, so a change that lands in both is harmless.
+ *
+ * Changes to the waiting queue and barista assignments are made through
+ * {@link #inOrder(Supplier)} together with the events they publish, so event
+ * versions follow the order the changes were actually made in. Lock order is
+ * this publisher, then WaitingQueue / BaristaAssignmentEngine / FairnessTracker;
+ * a change must never take the aging engine's lock.
+ */
+@Component
+@Slf4j
+public class QueueEventPublisher {
+
+    public static final String QUEUE_TOPIC = "/topic/queue";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WaitingQueue waitingQueue;
+    private final BaristaAssignmentEngine assignmentEngine;
+
+    private long version;
+
+    public QueueEventPublisher(SimpMessagingTemplate messagingTemplate, WaitingQueue waitingQueue,
+                               BaristaAssignmentEngine assignmentEngine) {
+        this.messagingTemplate = messagingTemplate;
+        this.waitingQueue = waitingQueue;
+        this.assignmentEngine = assignmentEngine;
+    }
+
+    /**
+     * Run a queue change and the events it publishes in one critical section
+     */
+    public synchronized <T> T inOrder(Supplier<T> change) {
+        return change.get();
+    }
+
+    public void orderAdded(Order order) {
+        QueueOrder added = QueueOrder.from(order, waitingQueue.isBoosted(order.getId()));
+        publish(new QueueEvent(0, QueueEvent.EventType.ORDER_ADDED, added, null, null, null));
+    }
+
+    public void ordersReranked(Map<String, Double> scores) {
+        if (scores.isEmpty()) return;
+        publish(new QueueEvent(0, QueueEvent.EventType.ORDER_RERANKED, null, null, scores, null));
+    }
+
+    public void orderBoosted(String orderId, double score) {
+        publish(new QueueEvent(0, QueueEvent.EventType.ORDER_RERANKED, null, null, Map.of(orderId, score),
+            List.of(orderId)));
+    }
+
+    public void orderAssigned(Order order) {
+        publish(new QueueEvent(0, QueueEvent.EventType.ORDER_ASSIGNED, QueueOrder.from(order), null, null, null));
+    }
+
+    public void orderCompleted(String orderId) {
+        publish(new QueueEvent(0, QueueEvent.EventType.ORDER_COMPLETED, null, orderId, null, null));
+    }
+
+    public synchronized QueueSnapshot snapshot() {
+        List<QueueOrder> waiting = waitingQueue.snapshot().stream()
+            .map(order -> QueueOrder.from(order, waitingQueue.isBoosted(order.getId())))
+            .toList();
+        List<QueueBarista> baristas = assignmentEngine.getBaristas().stream().map(QueueBarista::from).toList();
+        return new QueueSnapshot(version, waiting, baristas);
+    }
+
+    private synchronized void publish(QueueEvent event) {
+        event.setVersion(++version);
+        try {
+            messagingTemplate.convertAndSend(QUEUE_TOPIC, event);
+        } catch (MessagingException e) {
+            log.warn("Failed to publish queue event {}: {}", event.getType(), e.getMessage());
+        }
+    }
+}
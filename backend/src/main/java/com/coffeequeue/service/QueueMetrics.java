@@ -0,0 +1,171 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.MetricsResponse;
+import com.coffeequeue.model.Barista;
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.model.OrderItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the queue engine, exported at
+ * {@code /actuator/prometheus}. {@link #snapshot()} builds the
+ * {@link MetricsResponse} from the same meters, so the JSON and the scrape
+ * always agree. Counts run from process start.
+ *
+ * Tag values are bounded: drinks not on the menu are tagged {@code other},
+ * and customer types use the normalized {@link CustomerType}.
+ */
+@Component
+public class QueueMetrics {
+
+    private static final String OTHER_DRINK = "other";
+    private static final String NO_BARISTA = "none";
+
+    private final MeterRegistry registry;
+    private final BaristaAssignmentEngine assignmentEngine;
+
+    private final Timer createTimer;
+    private final Timer completeTimer;
+    private final Timer waitingReadTimer;
+    private final Timer waitTimer;
+    private final DistributionSummary prepMinutes;
+    private final Counter timeouts;
+    private final Counter mongoFallbacks;
+    private final Map<CustomerType, Counter> ordersByCustomerType = new EnumMap<>(CustomerType.class);
+    private final Map<String, Counter> drinksByType = new HashMap<>();
+
+    public QueueMetrics(MeterRegistry registry, WaitingQueue waitingQueue, MenuService menuService,
+                        BaristaAssignmentEngine assignmentEngine) {
+        this.registry = registry;
+        this.assignmentEngine = assignmentEngine;
+
+        createTimer = Timer.builder("queue.order.create")
+            .description("Time to place an order").register(registry);
+        completeTimer = Timer.builder("queue.order.complete")
+            .description("Time to complete an order").register(registry);
+        waitingReadTimer = Timer.builder("queue.waiting.read")
+            .description("Time to read the waiting queue in priority order").register(registry);
+        waitTimer = Timer.builder("queue.order.wait")
+            .description("Arrival to completion of completed orders")
+            .publishPercentileHistogram()
+            .register(registry);
+        prepMinutes = DistributionSummary.builder("queue.order.prep")
+            .description("Total prep time of placed orders").baseUnit("minutes").register(registry);
+        timeouts = Counter.builder("queue.orders.timeouts")
+            .description("Orders completed after waiting " + PriorityScorer.URGENT_WAIT_MINUTES + "+ minutes")
+            .register(registry);
+        mongoFallbacks = Counter.builder("queue.mongo.fallbacks")
+            .description("Reads served from memory because MongoDB failed").register(registry);
+        Gauge.builder("queue.waiting.depth", waitingQueue, WaitingQueue::size)
+            .description("Orders waiting to be claimed").register(registry);
+
+        for (CustomerType type : CustomerType.values()) {
+            ordersByCustomerType.put(type, Counter.builder("queue.orders.placed")
+                .description("Orders placed").tag("customerType", type.name()).register(registry));
+        }
+        for (String drink : menuService.getMenu().keySet()) {
+            drinksByType.put(drink, drinkCounter(drink));
+        }
+        drinksByType.put(OTHER_DRINK, drinkCounter(OTHER_DRINK));
+        for (Barista barista : assignmentEngine.getBaristas()) {
+            completedCounter(barista.getId());
+        }
+    }
+
+    public void orderCreated(Order order, long elapsedNanos) {
+        createTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        ordersByCustomerType.get(CustomerType.of(order)).increment();
+        prepMinutes.record(order.getTotalPrepTime());
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                drinksByType.getOrDefault(item.getDrinkType(), drinksByType.get(OTHER_DRINK))
+                    .increment(item.getQuantity());
+            }
+        }
+    }
+
+    public void orderCompleted(Order order, long elapsedNanos) {
+        completeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        completedCounter(order.getAssignedBarista() != null ? order.getAssignedBarista() : NO_BARISTA).increment();
+        if (order.getArrivalTime() != null && order.getCompletionTime() != null) {
+            Duration wait = Duration.between(order.getArrivalTime(), order.getCompletionTime());
+            waitTimer.record(wait);
+            if (wait.toMinutes() >= PriorityScorer.URGENT_WAIT_MINUTES) {
+                timeouts.increment();
+            }
+        }
+    }
+
+    public void waitingRead(long elapsedNanos) {
+        waitingReadTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void mongoFallback() {
+        mongoFallbacks.increment();
+    }
+
+    public MetricsResponse snapshot() {
+        Collection<Counter> completed = registry.find("queue.orders.completed").counters();
+        long totalCompleted = (long) completed.stream().mapToDouble(Counter::count).sum();
+        long loyal = (long) (ordersByCustomerType.get(CustomerType.REGULAR).count()
+            + ordersByCustomerType.get(CustomerType.VIP_PREMIUM).count());
+        Gauge fairness = registry.find("queue.fairness.score").gauge();
+        return new MetricsResponse(
+            totalCompleted,
+            waitTimer.mean(TimeUnit.SECONDS) / 60.0,
+            prepMinutes.mean(),
+            (int) totalCompleted,
+            workloadBalance(),
+            fairness != null ? fairness.value() : 0.0,
+            (long) timeouts.count(),
+            loyal);
+    }
+
+    /**
+     * 100 when configured baristas have completed equal numbers of orders,
+     * falling with the coefficient of variation of their counts.
+     */
+    private double workloadBalance() {
+        List<Barista> baristas = assignmentEngine.getBaristas();
+        if (baristas.isEmpty()) return 100.0;
+        double[] counts = new double[baristas.size()];
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = completedCounter(baristas.get(i).getId()).count();
+            sum += counts[i];
+        }
+        if (sum == 0) return 100.0;
+        double mean = sum / counts.length;
+        double variance = 0;
+        for (double count : counts) {
+            variance += (count - mean) * (count - mean);
+        }
+        double cv = Math.sqrt(variance / counts.length) / mean;
+        return Math.max(0.0, 100.0 * (1 - cv));
+    }
+
+    private Counter completedCounter(String barista) {
+        // Registry returns the existing counter for a known name and tags
+        return Counter.builder("queue.orders.completed")
+            .description("Orders completed").tag("barista", barista).register(registry);
+    }
+
+    private Counter drinkCounter(String drink) {
+        return Counter.builder("queue.drinks.ordered")
+            .description("Drinks ordered, by quantity").tag("drink", drink).register(registry);
+    }
+}
@@ -1,61 +1,256 @@
 package com.coffeequeue.service;
 
+import com.coffeequeue.dto.BaristaResponseDto;
+import com.coffeequeue.dto.FairnessMetricsDto;
+import com.coffeequeue.dto.MetricsResponse;
+import com.coffeequeue.dto.OrderEta;
+import com.coffeequeue.dto.OrderPage;
+import com.coffeequeue.dto.WaitTimeWindow;
 import com.coffeequeue.model.*;
+import com.coffeequeue.repository.InMemoryOrderStore;
+import com.coffeequeue.repository.OrderArchive;
+import com.coffeequeue.repository.OrderCursor;
+import com.coffeequeue.repository.OrderJournal;
 import com.coffeequeue.repository.OrderRepository;
+import com.coffeequeue.repository.OrderWriteBehind;
+import com.coffeequeue.service.policy.SchedulingPolicy;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class QueueService {
     
+    /** Largest order history page a client can ask for */
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    // Journaled orders compared against Mongo per query at startup
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    
     private final MenuService menuService;
     private final WhatsAppNotificationService whatsappService;
     
     @Autowired(required = false)
     private OrderRepository orderRepository;
     
-    // In-memory fallback when MongoDB is unavailable
-    private final List<Order> inMemoryOrders = Collections.synchronizedList(new ArrayList<>());
+    // Hot set of orders touched since startup; also the fallback when MongoDB is unavailable
+    private final InMemoryOrderStore inMemoryOrders;
+    private final OrderJournal orderJournal;
+    private final OrderArchive orderArchive;
+    private final OrderWriteBehind orderWriter;
+    
+    // Live priority queue of WAITING orders, maintained on create/complete
+    private final WaitingQueue waitingQueue;
+    private final PriorityScorer priorityScorer;
+    private final PriorityAgingEngine agingEngine;
+    private final QueueEventPublisher queueEventPublisher;
+    private final DashboardAggregator dashboardAggregator;
+    private final BaristaAssignmentEngine assignmentEngine;
+    private final QueueMetrics queueMetrics;
+    private final WaitTimeTracker waitTimes;
+    private final EtaEngine etaEngine;
+    private final FairnessTracker fairnessTracker;
+    private final TimeoutAlertEngine timeoutAlerts;
+    private final Clock clock;
     
-    public QueueService(MenuService menuService, WhatsAppNotificationService whatsappService) {
+    /** What completing an order took out of the queue or a barista's hands */
+    private record LiveCompletion(Order order, String freedBarista) {}
+    
+    public QueueService(MenuService menuService, WhatsAppNotificationService whatsappService,
+                        InMemoryOrderStore inMemoryOrders, WaitingQueue waitingQueue,
+                        PriorityScorer priorityScorer, PriorityAgingEngine agingEngine,
+                        QueueEventPublisher queueEventPublisher, DashboardAggregator dashboardAggregator,
+                        BaristaAssignmentEngine assignmentEngine, OrderJournal orderJournal,
+                        OrderArchive orderArchive, OrderWriteBehind orderWriter, QueueMetrics queueMetrics,
+                        WaitTimeTracker waitTimes, EtaEngine etaEngine, FairnessTracker fairnessTracker,
+                        TimeoutAlertEngine timeoutAlerts, Clock clock) {
         this.menuService = menuService;
         this.whatsappService = whatsappService;
+        this.inMemoryOrders = inMemoryOrders;
+        this.waitingQueue = waitingQueue;
+        this.priorityScorer = priorityScorer;
+        this.agingEngine = agingEngine;
+        this.queueEventPublisher = queueEventPublisher;
+        this.dashboardAggregator = dashboardAggregator;
+        this.assignmentEngine = assignmentEngine;
+        this.orderJournal = orderJournal;
+        this.orderArchive = orderArchive;
+        this.orderWriter = orderWriter;
+        this.queueMetrics = queueMetrics;
+        this.waitTimes = waitTimes;
+        this.etaEngine = etaEngine;
+        this.fairnessTracker = fairnessTracker;
+        this.timeoutAlerts = timeoutAlerts;
+        this.clock = clock;
+    }
+    
+    /**
+     * Rebuild the waiting queue, barista assignments, dashboard aggregates and
+     * wait-time windows from the store once at startup. Orders the journal
+     * holds a newer state of than Mongo are written again first and win over
+     * the Mongo copy.
+     */
+    @PostConstruct
+    public void initialize() {
+        List<Order> unflushed = rewriteUnflushed();
+        List<Order> waiting = merged(Order.OrderStatus.WAITING, unflushed, queryOrders(
+            repo -> repo.findByStatusOrderByPriorityScoreDesc(Order.OrderStatus.WAITING),
+            () -> inMemoryOrders.findByStatus(Order.OrderStatus.WAITING)));
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Order> requeued = new ArrayList<>();
+        for (Order order : waiting) {
+            waitingQueue.add(order);
+            agingEngine.track(order, now);
+        }
+        
+        for (Order order : merged(Order.OrderStatus.PREPARING, unflushed, getOrdersByStatus(Order.OrderStatus.PREPARING))) {
+            timeoutAlerts.schedule(order);
+            if (!assignmentEngine.restore(order)) {
+                // Barista no longer configured: put the order back in line
+                log.warn("Order {} was assigned to unknown barista {}, requeueing", order.getId(), order.getAssignedBarista());
+                order.setStatus(Order.OrderStatus.WAITING);
+                order.setAssignedBarista(null);
+                order.setStartTime(null);
+                saveOrder(order);
+                waitingQueue.add(order);
+                agingEngine.track(order, now);
+                requeued.add(order);
+            }
+        }
+        // Skips are counted against arrival order, which the store query does not return
+        List<Order> byArrival = new ArrayList<>(waiting);
+        byArrival.addAll(requeued);
+        byArrival.sort(Comparator.comparing(Order::getArrivalTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        byArrival.forEach(order -> fairnessTracker.arrived(order.getId()));
+        assignmentEngine.enforceSkipCap();
+        waiting.forEach(timeoutAlerts::schedule);
+        log.info("Waiting queue loaded with {} orders", waitingQueue.size());
+        
+        // Stream only the fields the aggregates read; only today's completions fall in a wait-time window
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        long[] replayed = {0};
+        dashboardAggregator.reset();
+        forEachOrder(repo -> repo.streamStats(null, null, null), null, null, null, order -> {
+            dashboardAggregator.replay(order);
+            replayed[0]++;
+            if (order.getStatus() == Order.OrderStatus.COMPLETED && order.getCompletionTime() != null
+                    && !order.getCompletionTime().isBefore(startOfDay)) {
+                waitTimes.record(order, now);
+            }
+        });
+        log.info("Dashboard aggregates rebuilt from {} orders", replayed[0]);
+    }
+    
+    /**
+     * Find journaled orders that Mongo is missing or holds an earlier status
+     * of, i.e. writes acknowledged before a restart but never flushed, and
+     * write them again. If Mongo can't be read every journaled order is left
+     * to the background flusher; upserts of an unchanged order are harmless.
+     */
+    private List<Order> rewriteUnflushed() {
+        List<Order> journaled = inMemoryOrders.findAll();
+        if (!isMongoAvailable() || journaled.isEmpty()) {
+            return List.of();
+        }
+        List<Order> unflushed = new ArrayList<>();
+        try {
+            for (int i = 0; i < journaled.size(); i += RECONCILE_BATCH_SIZE) {
+                List<Order> batch = journaled.subList(i, Math.min(i + RECONCILE_BATCH_SIZE, journaled.size()));
+                Map<String, Order.OrderStatus> stored = new HashMap<>(batch.size() * 2);
+                for (Order order : orderRepository.findStatusByIdIn(batch.stream().map(Order::getId).toList())) {
+                    stored.put(order.getId(), order.getStatus());
+                }
+                for (Order order : batch) {
+                    Order.OrderStatus storedStatus = stored.get(order.getId());
+                    if (storedStatus == null || (order.getStatus() != null
+                            && order.getStatus().ordinal() > storedStatus.ordinal())) {
+                        unflushed.add(order);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            queueMetrics.mongoFallback();
+            log.warn("MongoDB unavailable, rewriting all {} journaled orders in the background: {}",
+                journaled.size(), e.getMessage());
+            orderWriter.writeLater(journaled);
+            return journaled;
+        }
+        if (!unflushed.isEmpty()) {
+            orderWriter.writeAll(unflushed);
+            log.info("✅ {} journaled orders were newer than MongoDB and were written again", unflushed.size());
+        }
+        return unflushed;
+    }
+    
+    // Replace stored copies of the unflushed orders with their journaled state
+    private static List<Order> merged(Order.OrderStatus status, List<Order> unflushed, List<Order> stored) {
+        if (unflushed.isEmpty()) {
+            return stored;
+        }
+        Map<String, Order> byId = new LinkedHashMap<>();
+        for (Order order : stored) {
+            byId.put(order.getId(), order);
+        }
+        for (Order order : unflushed) {
+            byId.remove(order.getId());
+            if (order.getStatus() == status) {
+                byId.put(order.getId(), order);
+            }
+        }
+        return new ArrayList<>(byId.values());
     }
     
     private boolean isMongoAvailable() {
         return orderRepository != null;
     }
 
-    private List<Order> getAllOrdersInternal() {
+    /**
+     * Run an indexed MongoDB query, falling back to the in-memory store when Mongo is missing or down
+     */
+    private <T> T queryOrders(Function<OrderRepository, T> mongoQuery, Supplier<T> inMemoryQuery) {
         if (isMongoAvailable()) {
             try {
-                return orderRepository.findAll();
+                return mongoQuery.apply(orderRepository);
             } catch (Exception e) {
+                queueMetrics.mongoFallback();
                 log.warn("MongoDB unavailable, using in-memory store: {}", e.getMessage());
-                return inMemoryOrders;
             }
         }
-        return inMemoryOrders;
+        return inMemoryQuery.get();
     }
 
-    private Order saveOrder(Order order) {
-        if (isMongoAvailable()) {
-            try {
-                return orderRepository.save(order);
-            } catch (Exception e) {
-                log.warn("MongoDB save failed, using in-memory: {}", e.getMessage());
+    /**
+     * Add archived (cold) orders to a list read from the hot store; hot copies win on duplicate ids
+     */
+    private List<Order> withArchived(List<Order> hot) {
+        List<Order> merged = new ArrayList<>(hot);
+        orderArchive.forEach(order -> {
+            if (inMemoryOrders.findById(order.getId()) == null) {
+                merged.add(order);
             }
-        }
-        // In-memory fallback
-        inMemoryOrders.removeIf(o -> o.getId().equals(order.getId()));
-        inMemoryOrders.add(order);
+        });
+        return merged;
+    }
+
+    /**
+     * Apply the change to the in-memory store and local journal, then persist it per the configured durability mode
+     */
+    private Order saveOrder(Order order) {
+        inMemoryOrders.save(order);
+        orderJournal.saved(order);
+        orderWriter.write(order);
         return order;
     }
     
@@ -63,6 +258,7 @@ public class QueueService {
      * Create a new order
      */
     public Order createOrder(List<OrderItem> items, boolean isRegular, String customerType, String customerPhone) {
+        long start = System.nanoTime();
         Order order = new Order();
         order.setId(UUID.randomUUID().toString());
         order.setItems(items);
@@ -70,28 +266,44 @@ public class QueueService {
         order.setCustomerType(customerType);
         order.setCustomerPhone(customerPhone);
         order.setStatus(Order.OrderStatus.WAITING);
-        order.setArrivalTime(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now(clock);
+        order.setArrivalTime(now);
         
         // Calculate total prep time
-        int totalTime = 0;
-        for (OrderItem item : items) {
-            Drink d = menuService.getDrink(item.getDrinkType());
-            int prepTime = d != null ? d.getPrepTime() : 5;
-            totalTime += prepTime * item.getQuantity();
-        }
-        order.setTotalPrepTime(totalTime);
+        order.setTotalPrepTime(menuService.getTotalPrepTime(items));
         
         // Calculate initial priority
-        double score = calculatePriorityScore(order, LocalDateTime.now());
+        double score = calculatePriorityScore(order, now);
         order.setPriorityScore(score);
         
         saveOrder(order);
+        queueEventPublisher.inOrder(() -> {
+            waitingQueue.add(order);
+            fairnessTracker.arrived(order.getId());
+            queueEventPublisher.orderAdded(order);
+            enforceSkipCap();
+            return order;
+        });
+        timeoutAlerts.schedule(order);
+        agingEngine.track(order, now);
+        dashboardAggregator.orderCreated(order);
         log.info("Order created: {} priority={}", order.getId(), score);
         
+        if (assignmentEngine.isAutoDispatch()) {
+            List<Order> assigned = queueEventPublisher.inOrder(() -> {
+                List<Order> dispatched = assignmentEngine.dispatch(now);
+                dispatched.forEach(queueEventPublisher::orderAssigned);
+                enforceSkipCap();
+                return dispatched;
+            });
+            assigned.forEach(this::onAssigned);
+        }
+        
         if (customerPhone != null && !customerPhone.isEmpty()) {
-            whatsappService.sendOrderConfirmation(order, customerPhone);
+            whatsappService.sendOrderConfirmation(order, customerPhone, etaEngine.estimate(order, now));
         }
         
+        queueMetrics.orderCreated(order, System.nanoTime() - start);
         return order;
     }
     
@@ -99,108 +311,350 @@ public class QueueService {
      * Calculate priority score (40% wait + 25% complexity + 10% loyalty + 25% urgency)
      */
     public double calculatePriorityScore(Order order, LocalDateTime now) {
-        if (order.getArrivalTime() == null) return 0;
-        long waitMinutes = ChronoUnit.MINUTES.between(order.getArrivalTime(), now);
-        int prepTime = order.getTotalPrepTime();
-        
-        double score = 0.0;
-        
-        // Wait time (40%) - max 40 for 10+ min
-        score += Math.min(waitMinutes * 4.0, 40);
-        
-        // Complexity (25%) - shorter orders get bonus
-        double complexBonus = Math.max(0, 25 - (prepTime / 6.0) * 25);
-        score += complexBonus;
-        
-        // Loyalty (10%)
-        if ("VIP Premium".equalsIgnoreCase(order.getCustomerType())) {
-            score += 20;
-        } else if (order.isRegular() || "Regular".equalsIgnoreCase(order.getCustomerType())) {
-            score += 10;
-        }
-        
-        // Urgency (25%) - emergency boost at 8+ min
-        if (waitMinutes >= 8) {
-            score += 25 + Math.min(waitMinutes - 8, 25);
+        return priorityScorer.calculatePriorityScore(order, now);
+    }
+    
+    public String getActivePolicy() {
+        return priorityScorer.getActivePolicy().name();
+    }
+    
+    /**
+     * Make the named scheduling policy active and re-score every waiting order under it
+     */
+    public void switchPolicy(String name) {
+        SchedulingPolicy previous = priorityScorer.activate(name);
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (Order order : waitingQueue.snapshot()) {
+            agingEngine.track(order, now);
         }
-        
-        return Math.min(score, 100);
+        // Read the scores back at publish time so a concurrent sweep can't publish over them with older ones
+        Map<String, Double> scores = queueEventPublisher.inOrder(() -> {
+            Map<String, Double> current = new LinkedHashMap<>();
+            for (Order order : waitingQueue.snapshot()) {
+                double score = waitingQueue.score(order.getId());
+                if (!Double.isNaN(score)) {
+                    current.put(order.getId(), score);
+                }
+            }
+            queueEventPublisher.ordersReranked(current);
+            return current;
+        });
+        log.info("✅ Scheduling policy switched from {} to {}, {} waiting orders re-scored",
+            previous.name(), name, scores.size());
     }
     
     /**
      * Get waiting orders sorted by priority
      */
     public List<Order> getWaitingOrders() {
-        return getAllOrdersInternal().stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.WAITING)
-            .sorted((a, b) -> Double.compare(b.getPriorityScore(), a.getPriorityScore()))
-            .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<Order> waiting = waitingQueue.snapshot();
+        queueMetrics.waitingRead(System.nanoTime() - start);
+        return waiting;
     }
     
     /**
-     * Get all orders
+     * Predicted ready times of the given waiting orders, which must be in priority order
      */
-    public List<Order> getAllOrders() {
-        return new ArrayList<>(getAllOrdersInternal());
+    public Map<String, OrderEta> getWaitingEtas(List<Order> waiting) {
+        return etaEngine.estimateAll(waiting, LocalDateTime.now(clock));
+    }
+    
+    /**
+     * Predicted ready time of an order. Only in-memory orders are looked up:
+     * the endpoint is public, so an unknown id must not reach Mongo or the archive.
+     */
+    public OrderEta getEta(String orderId) {
+        Order order = findLiveOrder(orderId);
+        if (order == null) {
+            throw new IllegalArgumentException("Order not found: " + orderId);
+        }
+        return etaEngine.estimate(order, LocalDateTime.now(clock));
+    }
+    
+    /**
+     * One page of order history, newest first by (arrivalTime, id). Pass the
+     * previous page's nextCursor to continue; orders placed meanwhile sort
+     * ahead of it and never shift later pages.
+     */
+    public OrderPage getOrderHistory(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                     String cursor, int limit) {
+        OrderCursor after = cursor != null && !cursor.isEmpty() ? OrderCursor.decode(cursor) : null;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether another page follows
+        List<Order> rows = queryOrders(
+            repo -> repo.findHistoryPage(status, from, to, after, pageSize + 1),
+            () -> inMemoryHistoryPage(status, from, to, after, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new OrderPage(rows, null);
+        }
+        List<Order> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new OrderPage(page, OrderCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * History page from the hot store and the archive. Keeps only the newest
+     * {@code limit} matches in a bounded heap rather than sorting everything,
+     * and reads archive day files newest first, stopping once no older file
+     * can hold an order newer than the oldest one kept.
+     */
+    private List<Order> inMemoryHistoryPage(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                            OrderCursor after, int limit) {
+        Predicate<Order> matches = historyFilter(status, from, to)
+            .and(order -> after == null || after.precedes(order));
+        // Oldest kept order at the head, so it is the one evicted
+        PriorityQueue<Order> newest = new PriorityQueue<>(limit + 1, OrderCursor.NEWEST_FIRST.reversed());
+        Consumer<Order> offer = order -> {
+            if (matches.test(order)) {
+                newest.add(order);
+                if (newest.size() > limit) newest.poll();
+            }
+        };
+
+        (status != null ? inMemoryOrders.findByStatus(status) : inMemoryOrders.findAll()).forEach(offer);
+        if (status == null || status == Order.OrderStatus.COMPLETED) {
+            // An order arrives no later than the day it completes, so once the page is full a file
+            // dated before the oldest kept arrival holds nothing newer
+            Predicate<LocalDate> mayHoldNewer = day -> newest.size() < limit
+                || newest.peek().getArrivalTime() == null
+                || !day.isBefore(newest.peek().getArrivalTime().toLocalDate());
+            // An order being swept can be in both for a moment; the hot copy wins
+            orderArchive.forEachNewestFirst(from != null ? from.toLocalDate() : null, mayHoldNewer, order -> {
+                if (inMemoryOrders.findById(order.getId()) == null) {
+                    offer.accept(order);
+                }
+            });
+        }
+        List<Order> page = new ArrayList<>(newest);
+        page.sort(OrderCursor.NEWEST_FIRST);
+        return page;
+    }
+
+    /**
+     * Feed every order matching the filters to {@code consumer} without
+     * collecting them: from a MongoDB cursor, or from the hot store and then
+     * the archive files when Mongo is unavailable.
+     */
+    public void forEachOrder(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                             Consumer<Order> consumer) {
+        forEachOrder(repo -> repo.streamHistory(status, from, to), status, from, to, consumer);
+    }
+
+    // Mongo reads through `stream`, which must apply the same filters as the in-memory walk
+    private void forEachOrder(Function<OrderRepository, Stream<Order>> stream, Order.OrderStatus status,
+                              LocalDateTime from, LocalDateTime to, Consumer<Order> consumer) {
+        Stream<Order> cursor = queryOrders(stream, () -> null);
+        if (cursor != null) {
+            try (cursor) {
+                cursor.forEach(consumer);
+            }
+            return;
+        }
+        forEachInMemory(status, from, to, consumer);
+    }
+
+    private void forEachInMemory(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                 Consumer<Order> consumer) {
+        Predicate<Order> matches = historyFilter(status, from, to);
+        for (Order order : status != null ? inMemoryOrders.findByStatus(status) : inMemoryOrders.findAll()) {
+            if (matches.test(order)) {
+                consumer.accept(order);
+            }
+        }
+        if (status == null || status == Order.OrderStatus.COMPLETED) {
+            // An order completes no earlier than it arrives, so day files before `from` cannot match.
+            // An order being swept can be in both for a moment; the hot copy wins
+            orderArchive.forEach(from != null ? from.toLocalDate() : null, order -> {
+                if (inMemoryOrders.findById(order.getId()) == null && matches.test(order)) {
+                    consumer.accept(order);
+                }
+            });
+        }
+    }
+    
+    private static Predicate<Order> historyFilter(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return order -> (status == null || order.getStatus() == status)
+            && (from == null || (order.getArrivalTime() != null && !order.getArrivalTime().isBefore(from)))
+            && (to == null || (order.getArrivalTime() != null && order.getArrivalTime().isBefore(to)));
     }
     
     /**
      * Get order by ID
      */
     public Order getOrderById(String orderId) {
-        return getAllOrdersInternal().stream()
-            .filter(o -> o.getId().equals(orderId))
-            .findFirst()
-            .orElse(null);
+        Order live = findLiveOrder(orderId);
+        if (live != null) {
+            return live;
+        }
+        return queryOrders(
+            repo -> repo.findById(orderId).orElse(null),
+            () -> orderArchive.findById(orderId));
+    }
+    
+    /**
+     * Look an order up in the waiting queue, barista assignments and hot store only
+     */
+    private Order findLiveOrder(String orderId) {
+        Order queued = waitingQueue.get(orderId);
+        if (queued != null) {
+            return queued;
+        }
+        Order assigned = assignmentEngine.getAssignedOrder(orderId);
+        if (assigned != null) {
+            return assigned;
+        }
+        // Recently saved orders may not have reached Mongo yet
+        return inMemoryOrders.findById(orderId);
+    }
+    
+    /**
+     * Get orders with the given status
+     */
+    public List<Order> getOrdersByStatus(Order.OrderStatus status) {
+        return queryOrders(
+            repo -> repo.findByStatus(status),
+            () -> status == Order.OrderStatus.COMPLETED
+                ? withArchived(inMemoryOrders.findByStatus(status))
+                : inMemoryOrders.findByStatus(status));
     }
     
     /**
-     * Complete an order
+     * Claim the top waiting order for a barista. A barista who is already
+     * preparing an order gets that order back; null means the queue is empty.
+     */
+    public Order claimNextOrder(String baristaId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Order order = queueEventPublisher.inOrder(() -> {
+            Order claimed = assignmentEngine.claimNext(baristaId, now);
+            if (claimed != null) {
+                queueEventPublisher.orderAssigned(claimed);
+                enforceSkipCap();
+            }
+            return claimed;
+        });
+        if (order == null) {
+            return assignmentEngine.getCurrentOrder(baristaId);
+        }
+        onAssigned(order);
+        return order;
+    }
+    
+    // Boost the order the skip cap says goes next, and tell screens it now ranks first; call within inOrder
+    private void enforceSkipCap() {
+        String boosted = assignmentEngine.enforceSkipCap();
+        if (boosted != null) {
+            queueEventPublisher.orderBoosted(boosted, waitingQueue.score(boosted));
+        }
+    }
+    
+    // Bookkeeping for an order whose ORDER_ASSIGNED event is already published
+    private void onAssigned(Order order) {
+        agingEngine.untrack(order.getId());
+        saveOrder(order);
+        dashboardAggregator.statusChanged(order, Order.OrderStatus.WAITING);
+    }
+    
+    /**
+     * Complete an order. If a barista was preparing it they pull the next waiting order.
      */
     public Order completeOrder(String orderId) {
-        Order order = getOrderById(orderId);
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LiveCompletion live = queueEventPublisher.inOrder(() -> {
+            Order queued = waitingQueue.remove(orderId);
+            if (queued != null) {
+                // Handed over straight from the queue, without a barista claiming it
+                fairnessTracker.served(orderId, null);
+            }
+            Order assigned = queued == null ? assignmentEngine.getAssignedOrder(orderId) : null;
+            String freed = assignmentEngine.release(orderId, now);
+            if (queued != null || assigned != null) {
+                queueEventPublisher.orderCompleted(orderId);
+            }
+            if (queued != null) {
+                enforceSkipCap();
+            }
+            return new LiveCompletion(queued != null ? queued : assigned, freed);
+        });
+        agingEngine.untrack(orderId);
+        timeoutAlerts.cancel(orderId);
+        Order order = live.order() != null ? live.order() : getOrderById(orderId);
+        String freedBarista = live.freedBarista();
         if (order != null) {
+            Order.OrderStatus previousStatus = order.getStatus();
             order.setStatus(Order.OrderStatus.COMPLETED);
-            order.setCompletionTime(LocalDateTime.now());
+            order.setCompletionTime(now);
             saveOrder(order);
+            if (live.order() == null) {
+                // Not in the queue or assigned, so no queue change to order this against
+                queueEventPublisher.orderCompleted(orderId);
+            }
+            dashboardAggregator.statusChanged(order, previousStatus);
             log.info("Order completed: {}", orderId);
             
             if (order.getCustomerPhone() != null && !order.getCustomerPhone().isEmpty()) {
                 whatsappService.sendOrderReady(order, order.getCustomerPhone());
             }
             
+            if (freedBarista != null) {
+                claimNextOrder(freedBarista);
+            }
+            
+            if (previousStatus != Order.OrderStatus.COMPLETED) {
+                waitTimes.record(order, now);
+                queueMetrics.orderCompleted(order, System.nanoTime() - start);
+            }
             return order;
         }
         throw new IllegalArgumentException("Order not found: " + orderId);
     }
     
+    public MetricsResponse getMetrics() {
+        return queueMetrics.snapshot();
+    }
+    
     /**
      * Get queue stats
      */
     public Map<String, Object> getQueueStats() {
-        List<Order> allOrders = getAllOrdersInternal();
-        List<Order> completed = allOrders.stream()
-            .filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED)
-            .collect(Collectors.toList());
+        int totalOrders = queryOrders(repo -> (int) repo.estimatedCount(),
+            () -> inMemoryOrders.size() + (int) orderArchive.count());
         
-        double avgWait = 0;
-        if (!completed.isEmpty()) {
-            avgWait = completed.stream()
-                .mapToLong(o -> ChronoUnit.MINUTES.between(o.getArrivalTime(), o.getCompletionTime()))
-                .average()
-                .orElse(0);
-        }
+        // Today's waits and timeout rate come from the streaming tracker, not a rescan
+        Map<String, WaitTimeWindow> windows = waitTimes.snapshot(LocalDateTime.now(clock));
+        WaitTimeWindow today = windows.get(WaitTimeTracker.TODAY);
         
         return Map.of(
-            "totalOrders", allOrders.size(),
-            "waitingOrders", getWaitingOrders().size(),
-            "avgWaitTime", String.format("%.1f", avgWait),
-            "timeoutRate", "0.0"
+            "totalOrders", totalOrders,
+            "waitingOrders", waitingQueue.size(),
+            "avgWaitTime", String.format("%.1f", today.getMeanMinutes()),
+            "timeoutRate", String.format("%.1f", today.getTimeoutRate()),
+            "waitTimes", windows
         );
     }
 
-    /** Return baristas info (empty for now) */
-    public List<com.coffeequeue.model.Barista> getBaristas() {
-        return Collections.emptyList();
+    /**
+     * Fairness score, skips of the orders still waiting and cap violations per barista
+     */
+    public FairnessMetricsDto getFairnessMetrics() {
+        Map<String, Long> violations = new LinkedHashMap<>();
+        for (Barista barista : assignmentEngine.getBaristas()) {
+            violations.put(barista.getId(), barista.getFairnessViolations());
+        }
+        return new FairnessMetricsDto(fairnessTracker.fairnessScore(), fairnessTracker.skipCounts(), violations);
+    }
+    
+    /**
+     * Baristas with their current order
+     */
+    public List<Barista> getBaristas() {
+        return assignmentEngine.getBaristas();
+    }
+    
+    /**
+     * Per-barista throughput since the shift started
+     */
+    public List<BaristaResponseDto> getBaristaThroughput() {
+        return assignmentEngine.getThroughput(LocalDateTime.now(clock));
     }
 }
@@ -0,0 +1,50 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.PaymentResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated gateway that approves every payment after a fixed latency.
+ * The delay is a timer on a dedicated scheduler, so no thread waits it out.
+ */
+@Component
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long processingDelayMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "payment-gateway");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SimulatedPaymentGateway(@Value("${payments.simulated-delay-ms:1500}") long processingDelayMs) {
+        this.processingDelayMs = processingDelayMs;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> charge(double amount) {
+        log.info("💳 Processing simulated payment for amount: ${}", amount);
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            String transactionId = "txn_" + UUID.randomUUID().toString().replace("-", "");
+            log.info("✅ Payment successful! Transaction ID: {}", transactionId);
+            result.complete(new PaymentResult(true, transactionId, "Payment processed successfully via simulated gateway"));
+        }, processingDelayMs, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,277 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.AlertResponse;
+import com.coffeequeue.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raises staff alerts for orders that wait too long.
+ *
+ * Every order gets a WARNING and a CRITICAL deadline when it is placed, kept
+ * in a hashed timing wheel: a ring of {@value #WHEEL_SIZE} one-tick slots,
+ * each a doubly linked list of the deadlines that hash to it. Scheduling and
+ * cancelling are O(1) whatever the number pending, and a tick only walks its
+ * own slot; deadlines more than one turn away stay put until their turn
+ * comes round. Completing an order cancels its deadlines.
+ *
+ * Fired alerts are pushed to {@value #ALERTS_TOPIC} and stay open until
+ * acknowledged; acknowledgements are pushed too, so every screen clears them.
+ */
+@Component
+@Slf4j
+public class TimeoutAlertEngine {
+
+    public static final String ALERTS_TOPIC = "/topic/alerts";
+    public static final String ORDER_DELAYED = "ORDER_DELAYED";
+    public static final String ORDER_TIMEOUT = "ORDER_TIMEOUT";
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int MAX_OPEN_ALERTS = 1000;
+    private static final long MINUTE_MILLIS = 60_000;
+
+    /** One pending deadline, linked into its wheel slot */
+    private static final class Deadline {
+        private final String orderId;
+        private final AlertResponse.AlertSeverity severity;
+        private final long tick;
+        private Deadline previous;
+        private Deadline next;
+
+        private Deadline(String orderId, AlertResponse.AlertSeverity severity, long tick) {
+            this.orderId = orderId;
+            this.severity = severity;
+            this.tick = tick;
+        }
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Clock clock;
+    private final long tickMillis;
+    private final long warningMillis;
+    private final long criticalMillis;
+
+    private final Deadline[] wheel = new Deadline[WHEEL_SIZE];
+    private final Map<String, List<Deadline>> deadlinesByOrder = new HashMap<>();
+    private long currentTick;
+    private int pending;
+
+    private final Map<String, AlertResponse> openAlerts = new LinkedHashMap<>();
+    private final Map<AlertResponse.AlertSeverity, Counter> fired = new EnumMap<>(AlertResponse.AlertSeverity.class);
+
+    public TimeoutAlertEngine(SimpMessagingTemplate messagingTemplate, MeterRegistry registry, Clock clock,
+                              @Value("${queue.alerts.tick-ms:1000}") long tickMillis,
+                              @Value("${queue.alerts.warning-minutes:6}") long warningMinutes) {
+        this.messagingTemplate = messagingTemplate;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.warningMillis = warningMinutes * MINUTE_MILLIS;
+        this.criticalMillis = PriorityScorer.URGENT_WAIT_MINUTES * MINUTE_MILLIS;
+        this.currentTick = Math.floorDiv(clock.millis(), tickMillis);
+
+        Gauge.builder("queue.alerts.pending", this, TimeoutAlertEngine::pendingCount)
+            .description("Alert deadlines scheduled and not yet fired or cancelled").register(registry);
+        Gauge.builder("queue.alerts.open", this, TimeoutAlertEngine::openCount)
+            .description("Fired alerts not yet acknowledged").register(registry);
+        for (AlertResponse.AlertSeverity severity : AlertResponse.AlertSeverity.values()) {
+            fired.put(severity, Counter.builder("queue.alerts.fired")
+                .description("Timeout alerts raised").tag("severity", severity.name()).register(registry));
+        }
+    }
+
+    /**
+     * Schedule an order's WARNING and CRITICAL deadlines from its arrival.
+     * A deadline already passed fires on the next tick; once CRITICAL is due
+     * the WARNING is not raised as well.
+     */
+    public synchronized void schedule(Order order) {
+        if (order.getArrivalTime() == null || order.getId() == null) return;
+        cancelLocked(order.getId());
+        long arrival = toMillis(order.getArrivalTime());
+        long critical = arrival + criticalMillis;
+        List<Deadline> deadlines = new ArrayList<>(2);
+        if (critical > clock.millis() && warningMillis < criticalMillis) {
+            deadlines.add(link(order.getId(), AlertResponse.AlertSeverity.WARNING, arrival + warningMillis));
+        }
+        deadlines.add(link(order.getId(), AlertResponse.AlertSeverity.CRITICAL, critical));
+        deadlinesByOrder.put(order.getId(), deadlines);
+    }
+
+    /**
+     * Drop an order's pending deadlines, e.g. when it is completed
+     */
+    public synchronized void cancel(String orderId) {
+        cancelLocked(orderId);
+    }
+
+    @Scheduled(fixedRateString = "${queue.alerts.tick-ms:1000}")
+    public void tick() {
+        advance(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Fire every deadline up to {@code now} and push the resulting alerts.
+     * Returns how many fired.
+     */
+    public int advance(LocalDateTime now) {
+        List<AlertResponse> raised = new ArrayList<>();
+        synchronized (this) {
+            long target = Math.floorDiv(toMillis(now), tickMillis);
+            if (target - currentTick >= WHEEL_SIZE) {
+                // Fell a full turn behind: one pass over every slot catches up
+                for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                    expire(slot, target, raised);
+                }
+            } else {
+                for (long tick = currentTick + 1; tick <= target; tick++) {
+                    expire(slot(tick), tick, raised);
+                }
+            }
+            currentTick = Math.max(currentTick, target);
+        }
+        raised.forEach(this::publish);
+        return raised.size();
+    }
+
+    /**
+     * Mark an open alert acknowledged. Returns it, or null if no open alert has that id.
+     */
+    public AlertResponse acknowledge(String alertId) {
+        AlertResponse alert;
+        synchronized (this) {
+            alert = openAlerts.remove(alertId);
+            if (alert == null) return null;
+            alert.setAcknowledged(true);
+        }
+        log.info("✅ Alert {} for order {} acknowledged", alertId, alert.getOrderId());
+        publish(alert);
+        return alert;
+    }
+
+    /**
+     * Unacknowledged alerts, oldest first
+     */
+    public synchronized List<AlertResponse> getOpenAlerts() {
+        return new ArrayList<>(openAlerts.values());
+    }
+
+    public synchronized int openCount() {
+        return openAlerts.size();
+    }
+
+    public synchronized int pendingCount() {
+        return pending;
+    }
+
+    // Fire the deadlines in a slot that are due by `tick`; later turns stay linked
+    private void expire(int slot, long tick, List<AlertResponse> raised) {
+        Deadline deadline = wheel[slot];
+        while (deadline != null) {
+            Deadline next = deadline.next;
+            if (deadline.tick <= tick) {
+                unlink(slot, deadline);
+                List<Deadline> remaining = deadlinesByOrder.get(deadline.orderId);
+                if (remaining != null && remaining.remove(deadline) && remaining.isEmpty()) {
+                    deadlinesByOrder.remove(deadline.orderId);
+                }
+                raised.add(open(deadline));
+            }
+            deadline = next;
+        }
+    }
+
+    private AlertResponse open(Deadline deadline) {
+        boolean critical = deadline.severity == AlertResponse.AlertSeverity.CRITICAL;
+        long minutes = (critical ? criticalMillis : warningMillis) / MINUTE_MILLIS;
+        AlertResponse alert = new AlertResponse(
+            critical ? ORDER_TIMEOUT : ORDER_DELAYED,
+            deadline.orderId,
+            critical
+                ? "Order " + shortId(deadline.orderId) + " has waited " + minutes + " minutes and timed out"
+                : "Order " + shortId(deadline.orderId) + " has been waiting " + minutes + " minutes",
+            deadline.severity);
+        alert.setTimestamp(LocalDateTime.now(clock));
+        openAlerts.put(alert.getId(), alert);
+        if (openAlerts.size() > MAX_OPEN_ALERTS) {
+            openAlerts.remove(openAlerts.keySet().iterator().next());
+        }
+        fired.get(deadline.severity).increment();
+        return alert;
+    }
+
+    private Deadline link(String orderId, AlertResponse.AlertSeverity severity, long deadlineMillis) {
+        // Round up so an alert never fires before its deadline, and never into a tick already processed
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Deadline deadline = new Deadline(orderId, severity, tick);
+        int slot = slot(tick);
+        deadline.next = wheel[slot];
+        if (wheel[slot] != null) {
+            wheel[slot].previous = deadline;
+        }
+        wheel[slot] = deadline;
+        pending++;
+        return deadline;
+    }
+
+    private void unlink(int slot, Deadline deadline) {
+        if (deadline.previous != null) {
+            deadline.previous.next = deadline.next;
+        } else {
+            wheel[slot] = deadline.next;
+        }
+        if (deadline.next != null) {
+            deadline.next.previous = deadline.previous;
+        }
+        deadline.previous = null;
+        deadline.next = null;
+        pending--;
+    }
+
+    private void cancelLocked(String orderId) {
+        List<Deadline> deadlines = deadlinesByOrder.remove(orderId);
+        if (deadlines == null) return;
+        for (Deadline deadline : deadlines) {
+            unlink(slot(deadline.tick), deadline);
+        }
+    }
+
+    private void publish(AlertResponse alert) {
+        if (!alert.isAcknowledged()) {
+            log.info("{} alert: {}", alert.getSeverity(), alert.getMessage());
+        }
+        try {
+            messagingTemplate.convertAndSend(ALERTS_TOPIC, alert);
+        } catch (MessagingException e) {
+            log.warn("Failed to publish alert {}: {}", alert.getId(), e.getMessage());
+        }
+    }
+
+    private static int slot(long tick) {
+        return (int) (tick & (WHEEL_SIZE - 1));
+    }
+
+    private static String shortId(String orderId) {
+        return orderId.length() > 8 ? orderId.substring(0, 8) : orderId;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,44 @@
+package com.coffeequeue.service;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * WhatsApp delivery through the Twilio API. Each send is a blocking HTTP call.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.whatsapp.mode", havingValue = "twilio")
+@Slf4j
+public class TwilioMessagingProvider implements MessagingProvider {
+
+    @Value("${twilio.account-sid}")
+    private String twilioAccountSid;
+
+    @Value("${twilio.auth-token}")
+    private String twilioAuthToken;
+
+    @Value("${twilio.whatsapp-number}")
+    private String twilioWhatsAppNumber;
+
+    @PostConstruct
+    public void init() {
+        Twilio.init(twilioAccountSid, twilioAuthToken);
+        log.info("📱 WhatsApp Notification Service initialized with Twilio sender {}", twilioWhatsAppNumber);
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String body) {
+        Message message = Message.creator(
+                new PhoneNumber("whatsapp:" + toPhoneNumber),
+                new PhoneNumber(twilioWhatsAppNumber),
+                body)
+            .create();
+        return message.getSid();
+    }
+}
@@ -0,0 +1,172 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.dto.WaitTimeWindow;
+import com.coffeequeue.model.Order;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming arrival-to-completion wait distribution of completed orders over
+ * the last 15 minutes, the last hour and today.
+ *
+ * Waits are recorded in seconds into HdrHistograms: one per completion minute
+ * in a 60-slot ring, plus one running histogram per window. Histograms are
+ * mergeable, so a window slides by subtracting the minute that leaves it
+ * instead of re-reading orders; a read costs the same however many orders
+ * were completed. A wait of {@link PriorityScorer#URGENT_WAIT_MINUTES} or
+ * more counts as a timeout.
+ */
+@Component
+public class WaitTimeTracker {
+
+    public static final String LAST_15_MINUTES = "last15Minutes";
+    public static final String LAST_HOUR = "lastHour";
+    public static final String TODAY = "today";
+
+    private static final int HOUR_MINUTES = 60;
+    private static final int RECENT_MINUTES = 15;
+    private static final long HIGHEST_WAIT_SECONDS = Duration.ofDays(1).toSeconds();
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long TIMEOUT_SECONDS = PriorityScorer.URGENT_WAIT_MINUTES * 60L;
+    private static final long NONE = Long.MIN_VALUE;
+
+    // Ring of per-minute histograms, indexed by epoch minute mod 60
+    private final Histogram[] minuteWaits = new Histogram[HOUR_MINUTES];
+    private final long[] minuteTimeouts = new long[HOUR_MINUTES];
+
+    private final Histogram recentWaits = newHistogram();
+    private final Histogram hourWaits = newHistogram();
+    private final Histogram todayWaits = newHistogram();
+    private long recentTimeouts;
+    private long hourTimeouts;
+    private long todayTimeouts;
+
+    private long currentMinute = NONE;
+    private LocalDate currentDay;
+
+    public WaitTimeTracker() {
+        for (int i = 0; i < HOUR_MINUTES; i++) {
+            minuteWaits[i] = newHistogram();
+        }
+    }
+
+    /**
+     * Record a completed order's wait. Orders completed outside a window
+     * relative to {@code now} are left out of it.
+     */
+    public synchronized void record(Order order, LocalDateTime now) {
+        if (order.getArrivalTime() == null || order.getCompletionTime() == null) return;
+        advance(now);
+        LocalDateTime completion = order.getCompletionTime();
+        long seconds = Math.min(HIGHEST_WAIT_SECONDS,
+            Math.max(0, Duration.between(order.getArrivalTime(), completion).toSeconds()));
+        int timedOut = seconds >= TIMEOUT_SECONDS ? 1 : 0;
+
+        if (completion.toLocalDate().equals(currentDay)) {
+            todayWaits.recordValue(seconds);
+            todayTimeouts += timedOut;
+        }
+        long age = currentMinute - epochMinute(completion);
+        if (age < 0 || age >= HOUR_MINUTES) return;
+        int slot = slot(currentMinute - age);
+        minuteWaits[slot].recordValue(seconds);
+        minuteTimeouts[slot] += timedOut;
+        hourWaits.recordValue(seconds);
+        hourTimeouts += timedOut;
+        if (age < RECENT_MINUTES) {
+            recentWaits.recordValue(seconds);
+            recentTimeouts += timedOut;
+        }
+    }
+
+    /**
+     * Wait distribution per window as of {@code now}, keyed by window name
+     */
+    public synchronized Map<String, WaitTimeWindow> snapshot(LocalDateTime now) {
+        advance(now);
+        Map<String, WaitTimeWindow> windows = new LinkedHashMap<>();
+        windows.put(LAST_15_MINUTES, window(recentWaits, recentTimeouts));
+        windows.put(LAST_HOUR, window(hourWaits, hourTimeouts));
+        windows.put(TODAY, window(todayWaits, todayTimeouts));
+        return windows;
+    }
+
+    public synchronized WaitTimeWindow today(LocalDateTime now) {
+        advance(now);
+        return window(todayWaits, todayTimeouts);
+    }
+
+    // Slide the windows forward to now's minute and day; time never moves back
+    private void advance(LocalDateTime now) {
+        LocalDate day = now.toLocalDate();
+        if (currentDay == null || day.isAfter(currentDay)) {
+            todayWaits.reset();
+            todayTimeouts = 0;
+            currentDay = day;
+        }
+
+        long minute = epochMinute(now);
+        if (currentMinute != NONE && minute <= currentMinute) return;
+        if (currentMinute == NONE || minute - currentMinute >= HOUR_MINUTES) {
+            // Everything recorded so far has left the hour
+            recentWaits.reset();
+            hourWaits.reset();
+            recentTimeouts = 0;
+            hourTimeouts = 0;
+            for (long m = minute - HOUR_MINUTES + 1; m <= minute; m++) {
+                clearSlot(m);
+            }
+            currentMinute = minute;
+            return;
+        }
+        for (long m = currentMinute + 1; m <= minute; m++) {
+            // Minute m - 15 leaves the recent window but stays in the hour
+            int leaving = slot(m - RECENT_MINUTES);
+            recentWaits.subtract(minuteWaits[leaving]);
+            recentTimeouts -= minuteTimeouts[leaving];
+            // Minute m reuses the slot of m - 60, which leaves the hour
+            int reused = slot(m);
+            hourWaits.subtract(minuteWaits[reused]);
+            hourTimeouts -= minuteTimeouts[reused];
+            clearSlot(m);
+        }
+        currentMinute = minute;
+    }
+
+    private void clearSlot(long minute) {
+        int slot = slot(minute);
+        minuteWaits[slot].reset();
+        minuteTimeouts[slot] = 0;
+    }
+
+    private static WaitTimeWindow window(Histogram waits, long timeouts) {
+        long count = waits.getTotalCount();
+        if (count == 0) return new WaitTimeWindow(0, 0.0, 0.0, 0.0, 0.0, 0.0);
+        return new WaitTimeWindow(
+            count,
+            waits.getValueAtPercentile(50) / 60.0,
+            waits.getValueAtPercentile(90) / 60.0,
+            waits.getValueAtPercentile(99) / 60.0,
+            waits.getMean() / 60.0,
+            100.0 * timeouts / count);
+    }
+
+    private static int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) HOUR_MINUTES);
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.atZone(ZoneId.systemDefault()).toEpochSecond(), 60);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_WAIT_SECONDS, SIGNIFICANT_DIGITS);
+    }
+}
@@ -0,0 +1,475 @@
+package com.coffeequeue.service;
+
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.model.Order;
+import com.coffeequeue.service.policy.SchedulingPolicy;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Live indexed max-heap of WAITING orders, ordered by priority score.
+ *
+ * Orders are encoded on entry into parallel primitive columns indexed by a
+ * slot number: score, arrival in epoch millis, prep minutes and customer
+ * type ordinal. Heap sifts, re-scoring and rank queries read only those
+ * columns; the {@link Order} itself is kept per slot solely to be handed
+ * back at the API edge. Removal and re-prioritization are O(log n) through
+ * the id-to-slot index.
+ *
+ * Alongside the heap, a treap keeps the same slots in priority order with
+ * subtree sizes and prep-minute sums, so an order's rank and the prep time
+ * queued ahead of it are O(log n) reads ({@link #position}). Ordered
+ * snapshots are an in-order walk of it, rebuilt only when the queue has
+ * changed since the previous read.
+ *
+ * An order the fairness skip cap says must go next is {@link #boost}ed: its
+ * score column carries {@link #SKIP_CAP_BOOST} on top of the policy's, through
+ * re-scoring too, so ranks, ETAs and snapshots all show it first. The boost
+ * stays internal; the Order and {@link #score} keep the policy's score.
+ */
+@Component
+public class WaitingQueue {
+
+    /** Highest score first; earlier arrival and then id break ties deterministically. */
+    public static final Comparator<Order> PRIORITY_ORDER = Comparator
+            .comparingDouble(Order::getPriorityScore).reversed()
+            .thenComparing(Order::getArrivalTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Order::getId);
+
+    /** Added to a boosted order's score; wider than the spread of any built-in policy's scores */
+    public static final double SKIP_CAP_BOOST = 1000;
+
+    /** Returned by {@link #rescore} for an id that is not queued. */
+    public static final long NOT_QUEUED = Long.MIN_VALUE;
+
+    /** Zero-based rank of a queued order and the prep minutes of the orders ranked ahead of it */
+    public record Position(int rank, long prepMinutesAhead) {}
+
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final long NO_ARRIVAL = Long.MAX_VALUE;
+    private static final int NIL = -1;
+
+    private final PriorityScorer priorityScorer;
+
+    // Slot columns
+    private Order[] orders = new Order[64];
+    private String[] ids = new String[64];
+    private double[] scores = new double[64];
+    private long[] arrivalMillis = new long[64];
+    private int[] prepMinutes = new int[64];
+    private byte[] customerTypes = new byte[64];
+    private boolean[] boosted = new boolean[64];
+    private int[] heapIndex = new int[64];
+
+    // Heap of slot numbers, and slots released by removals
+    private int[] heap = new int[64];
+    private int size;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+
+    // Treap of slot numbers in priority order
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] treapPriority = new int[64];
+    private int[] subtreeSize = new int[64];
+    private long[] subtreePrep = new long[64];
+    private int root = NIL;
+    private int splitLow;
+    private int splitHigh;
+    private final SplittableRandom random = new SplittableRandom();
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    private long version;
+    private long snapshotVersion = -1;
+    private List<Order> snapshot = Collections.emptyList();
+
+    public WaitingQueue(PriorityScorer priorityScorer) {
+        this.priorityScorer = priorityScorer;
+    }
+
+    /**
+     * Add an order, or re-position it if an order with the same id is already queued.
+     */
+    public synchronized void add(Order order) {
+        Integer existing = slotById.get(order.getId());
+        if (existing != null) {
+            root = delete(root, existing);
+            encode(existing, order);
+            if (boosted[existing]) {
+                scores[existing] += SKIP_CAP_BOOST;
+            }
+            insert(existing);
+            resift(heapIndex[existing]);
+        } else {
+            int slot = allocateSlot();
+            encode(slot, order);
+            boosted[slot] = false;
+            insert(slot);
+            slotById.put(order.getId(), slot);
+            heap[size] = slot;
+            heapIndex[slot] = size;
+            siftUp(size++);
+        }
+        version++;
+    }
+
+    /**
+     * Remove an order by id. Returns the queued instance, or null if it was not waiting.
+     */
+    public synchronized Order remove(String orderId) {
+        Integer slot = slotById.get(orderId);
+        if (slot == null) return null;
+        Order removed = orders[slot];
+        removeAt(heapIndex[slot]);
+        version++;
+        return removed;
+    }
+
+    /**
+     * Update an order's priority score and restore heap order around it.
+     */
+    public synchronized boolean updatePriority(String orderId, double priorityScore) {
+        Integer slot = slotById.get(orderId);
+        if (slot == null) return false;
+        changeScore(slot, boosted[slot] ? priorityScore + SKIP_CAP_BOOST : priorityScore);
+        version++;
+        return true;
+    }
+
+    /**
+     * Re-score a queued order at {@code nowMillis} from its encoded fields with
+     * the active policy and restore heap order. Returns the epoch millis at which its score next
+     * changes, -1 if the score is final, or {@link #NOT_QUEUED}.
+     */
+    public synchronized long rescore(String orderId, long nowMillis) {
+        Integer slot = slotById.get(orderId);
+        if (slot == null) return NOT_QUEUED;
+        long arrival = arrivalMillis[slot];
+        if (arrival == NO_ARRIVAL) return -1;
+        // Truncating division, matching ChronoUnit.MINUTES.between
+        long waitMinutes = (nowMillis - arrival) / MINUTE_MILLIS;
+        CustomerType customerType = CustomerType.fromOrdinal(customerTypes[slot]);
+        SchedulingPolicy policy = priorityScorer.getActivePolicy();
+        double score = policy.score(prepMinutes[slot], customerType, waitMinutes)
+            + (boosted[slot] ? SKIP_CAP_BOOST : 0);
+        if (score != scores[slot]) {
+            changeScore(slot, score);
+            version++;
+        }
+        long nextMinute = policy.nextChangeMinute(prepMinutes[slot], customerType, waitMinutes);
+        return nextMinute < 0 ? -1 : arrival + nextMinute * MINUTE_MILLIS;
+    }
+
+    /**
+     * Rank a queued order ahead of every unboosted one until it leaves the
+     * queue. Returns false if it is not waiting.
+     */
+    public synchronized boolean boost(String orderId) {
+        Integer slot = slotById.get(orderId);
+        if (slot == null) return false;
+        if (!boosted[slot]) {
+            boosted[slot] = true;
+            changeScore(slot, scores[slot] + SKIP_CAP_BOOST);
+            version++;
+        }
+        return true;
+    }
+
+    public synchronized boolean isBoosted(String orderId) {
+        Integer slot = slotById.get(orderId);
+        return slot != null && boosted[slot];
+    }
+
+    /**
+     * Current policy score of a queued order, without any boost, or NaN if it is not waiting
+     */
+    public synchronized double score(String orderId) {
+        Integer slot = slotById.get(orderId);
+        return slot != null ? policyScore(slot) : Double.NaN;
+    }
+
+    /**
+     * Rank and prep minutes ahead of a queued order, or null if it is not waiting
+     */
+    public synchronized Position position(String orderId) {
+        Integer slot = slotById.get(orderId);
+        if (slot == null) return null;
+        int rank = 0;
+        long prepAhead = 0;
+        int node = root;
+        while (node != NIL) {
+            int cmp = compare(slot, node);
+            if (cmp < 0) {
+                node = left[node];
+                continue;
+            }
+            rank += size(left[node]);
+            prepAhead += prep(left[node]);
+            if (cmp == 0) break;
+            rank++;
+            prepAhead += prepMinutes[node];
+            node = right[node];
+        }
+        return new Position(rank, prepAhead);
+    }
+
+    public synchronized Order peek() {
+        return size > 0 ? orders[heap[0]] : null;
+    }
+
+    public synchronized Order poll() {
+        if (size == 0) return null;
+        Order top = orders[heap[0]];
+        removeAt(0);
+        version++;
+        return top;
+    }
+
+    public synchronized Order get(String orderId) {
+        Integer slot = slotById.get(orderId);
+        return slot != null ? orders[slot] : null;
+    }
+
+    public synchronized boolean contains(String orderId) {
+        return slotById.containsKey(orderId);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(orders, 0, slotCount, null);
+        Arrays.fill(ids, 0, slotCount, null);
+        slotById.clear();
+        size = 0;
+        freeCount = 0;
+        slotCount = 0;
+        root = NIL;
+        version++;
+    }
+
+    /**
+     * Orders in priority order. The returned list is immutable and shared
+     * between callers until the next change to the queue.
+     */
+    public synchronized List<Order> snapshot() {
+        if (snapshotVersion != version) {
+            Order[] ordered = new Order[size];
+            int[] path = new int[size];
+            int depth = 0;
+            int count = 0;
+            int node = root;
+            while (node != NIL || depth > 0) {
+                while (node != NIL) {
+                    path[depth++] = node;
+                    node = left[node];
+                }
+                node = path[--depth];
+                ordered[count++] = orders[node];
+                node = right[node];
+            }
+            snapshot = List.of(ordered);
+            snapshotVersion = version;
+        }
+        return snapshot;
+    }
+
+    private void encode(int slot, Order order) {
+        orders[slot] = order;
+        ids[slot] = order.getId();
+        scores[slot] = order.getPriorityScore();
+        arrivalMillis[slot] = toMillis(order.getArrivalTime());
+        prepMinutes[slot] = order.getTotalPrepTime();
+        customerTypes[slot] = (byte) CustomerType.of(order).ordinal();
+    }
+
+    // The Order is only written back so API reads see the current score; it never carries the boost
+    private void changeScore(int slot, double score) {
+        root = delete(root, slot);
+        scores[slot] = score;
+        orders[slot].setPriorityScore(policyScore(slot));
+        insert(slot);
+        resift(heapIndex[slot]);
+    }
+
+    private double policyScore(int slot) {
+        return boosted[slot] ? scores[slot] - SKIP_CAP_BOOST : scores[slot];
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == orders.length) {
+            int capacity = slotCount * 2;
+            orders = Arrays.copyOf(orders, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            arrivalMillis = Arrays.copyOf(arrivalMillis, capacity);
+            prepMinutes = Arrays.copyOf(prepMinutes, capacity);
+            customerTypes = Arrays.copyOf(customerTypes, capacity);
+            boosted = Arrays.copyOf(boosted, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            treapPriority = Arrays.copyOf(treapPriority, capacity);
+            subtreeSize = Arrays.copyOf(subtreeSize, capacity);
+            subtreePrep = Arrays.copyOf(subtreePrep, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void removeAt(int index) {
+        int slot = heap[index];
+        root = delete(root, slot);
+        slotById.remove(ids[slot]);
+        orders[slot] = null;
+        ids[slot] = null;
+        freeSlots[freeCount++] = slot;
+
+        int last = --size;
+        if (index != last) {
+            heap[index] = heap[last];
+            heapIndex[heap[index]] = index;
+            resift(index);
+        }
+    }
+
+    /** Negative if slot {@code a} ranks ahead of slot {@code b} */
+    private int compare(int a, int b) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        if (byScore != 0) return byScore;
+        int byArrival = Long.compare(arrivalMillis[a], arrivalMillis[b]);
+        if (byArrival != 0) return byArrival;
+        return ids[a].compareTo(ids[b]);
+    }
+
+    private void resift(int index) {
+        if (!siftUp(index)) {
+            siftDown(index);
+        }
+    }
+
+    private boolean siftUp(int index) {
+        int start = index;
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(slot, heap[parent]) >= 0) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(slot, index);
+        return index != start;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (compare(slot, heap[child]) <= 0) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(slot, index);
+    }
+
+    private void place(int slot, int index) {
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+
+    // Treap keyed by compare(); a slot's columns must not change while it is in the tree
+
+    private void insert(int slot) {
+        left[slot] = NIL;
+        right[slot] = NIL;
+        treapPriority[slot] = random.nextInt();
+        pull(slot);
+        split(root, slot);
+        root = merge(merge(splitLow, slot), splitHigh);
+    }
+
+    private int delete(int node, int slot) {
+        if (node == slot) return merge(left[node], right[node]);
+        if (compare(slot, node) < 0) {
+            left[node] = delete(left[node], slot);
+        } else {
+            right[node] = delete(right[node], slot);
+        }
+        pull(node);
+        return node;
+    }
+
+    // Split a subtree into the slots ranking ahead of `slot` (splitLow) and the rest (splitHigh)
+    private void split(int node, int slot) {
+        if (node == NIL) {
+            splitLow = NIL;
+            splitHigh = NIL;
+        } else if (compare(node, slot) < 0) {
+            split(right[node], slot);
+            right[node] = splitLow;
+            pull(node);
+            splitLow = node;
+        } else {
+            split(left[node], slot);
+            left[node] = splitHigh;
+            pull(node);
+            splitHigh = node;
+        }
+    }
+
+    // Join two treaps where every slot of `a` ranks ahead of every slot of `b`
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (treapPriority[a] > treapPriority[b]) {
+            right[a] = merge(right[a], b);
+            pull(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        pull(b);
+        return b;
+    }
+
+    private void pull(int node) {
+        subtreeSize[node] = 1 + size(left[node]) + size(right[node]);
+        subtreePrep[node] = prepMinutes[node] + prep(left[node]) + prep(right[node]);
+    }
+
+    private int size(int node) {
+        return node == NIL ? 0 : subtreeSize[node];
+    }
+
+    private long prep(int node) {
+        return node == NIL ? 0 : subtreePrep[node];
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NO_ARRIVAL;
+    }
+}
@@ -0,0 +1,33 @@
+package com.coffeequeue.service.policy;
+
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.service.PriorityScorer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Earliest deadline first, where the deadline is being ready
+ * {@link PriorityScorer#URGENT_WAIT_MINUTES} after arrival. An order must
+ * start by arrival + urgent wait - prep, so the one with the largest
+ * {@code wait + prep} has the earliest start deadline; that sum is the score.
+ * Every order gains a point a minute, so re-scoring seldom reorders the queue.
+ */
+@Component
+public class EarliestDeadlineFirstPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "earliest-deadline-first";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double score(int prepTime, CustomerType customerType, long waitMinutes) {
+        return waitMinutes + prepTime;
+    }
+
+    @Override
+    public long nextChangeMinute(int prepTime, CustomerType customerType, long waitMinutes) {
+        return Math.max(waitMinutes + 1, 0);
+    }
+}
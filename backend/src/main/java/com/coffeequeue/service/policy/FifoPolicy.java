@@ -0,0 +1,28 @@
+package com.coffeequeue.service.policy;
+
+import com.coffeequeue.model.CustomerType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Baseline: every order scores the same, so the queue runs in arrival order.
+ */
+@Component
+public class FifoPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "fifo";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double score(int prepTime, CustomerType customerType, long waitMinutes) {
+        return 0;
+    }
+
+    @Override
+    public long nextChangeMinute(int prepTime, CustomerType customerType, long waitMinutes) {
+        return -1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.coffeequeue.service.policy;
+
+import com.coffeequeue.model.CustomerType;
+
+/**
+ * Orders the waiting queue. Higher scores are served first; equal scores go
+ * by arrival, then id.
+ *
+ * A score may depend only on an order's prep minutes, customer type and the
+ * whole minutes it has waited, which is what the waiting queue keeps per
+ * order. {@link #nextChangeMinute} lets the aging engine re-score an order
+ * only when its score actually moves.
+ */
+public interface SchedulingPolicy {
+
+    /** Stable id used in configuration, the admin API and metric tags */
+    String name();
+
+    double score(int prepTime, CustomerType customerType, long waitMinutes);
+
+    /**
+     * First whole minute after {@code waitMinutes} at which the score differs,
+     * or -1 if the score is already final.
+     */
+    long nextChangeMinute(int prepTime, CustomerType customerType, long waitMinutes);
+}
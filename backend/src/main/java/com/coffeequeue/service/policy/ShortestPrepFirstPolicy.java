@@ -0,0 +1,29 @@
+package com.coffeequeue.service.policy;
+
+import com.coffeequeue.model.CustomerType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Quickest orders first (100 / prep minutes), arrival order among equals.
+ * Maximizes throughput but never ages, so long orders can starve in a rush.
+ */
+@Component
+public class ShortestPrepFirstPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "shortest-prep-first";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double score(int prepTime, CustomerType customerType, long waitMinutes) {
+        return 100.0 / Math.max(prepTime, 1);
+    }
+
+    @Override
+    public long nextChangeMinute(int prepTime, CustomerType customerType, long waitMinutes) {
+        return -1;
+    }
+}
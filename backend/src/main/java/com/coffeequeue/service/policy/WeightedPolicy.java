@@ -0,0 +1,60 @@
+package com.coffeequeue.service.policy;
+
+import com.coffeequeue.model.CustomerType;
+import com.coffeequeue.service.PriorityScorer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default policy: 40% wait + 25% complexity + 10-20% loyalty + 25%+ urgency,
+ * capped at 100.
+ *
+ * The score is piecewise-linear in whole minutes waited and stops changing
+ * once the wait and urgency terms are saturated.
+ */
+@Component
+public class WeightedPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "weighted";
+
+    /** Minute at which the urgency term saturates; no score changes after this. */
+    public static final long MAX_AGING_MINUTES = PriorityScorer.URGENT_WAIT_MINUTES + 25;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double score(int prepTime, CustomerType customerType, long waitMinutes) {
+        double score = 0.0;
+        
+        // Wait time (40%) - max 40 for 10+ min
+        score += Math.min(waitMinutes * 4.0, 40);
+        
+        // Complexity (25%) - shorter orders get bonus
+        double complexBonus = Math.max(0, 25 - (prepTime / 6.0) * 25);
+        score += complexBonus;
+        
+        // Loyalty (10%) - 10 for Regular, 20 for VIP Premium
+        score += customerType.getLoyaltyPoints();
+        
+        // Urgency (25%) - emergency boost at 8+ min, growing a point a minute
+        if (waitMinutes >= PriorityScorer.URGENT_WAIT_MINUTES) {
+            score += 25 + Math.min(waitMinutes - PriorityScorer.URGENT_WAIT_MINUTES, 25);
+        }
+        
+        return Math.min(score, 100);
+    }
+
+    @Override
+    public long nextChangeMinute(int prepTime, CustomerType customerType, long waitMinutes) {
+        double current = score(prepTime, customerType, waitMinutes);
+        if (current >= 100) return -1;
+        for (long minute = Math.max(waitMinutes + 1, 0); minute <= MAX_AGING_MINUTES; minute++) {
+            if (score(prepTime, customerType, minute) != current) {
+                return minute;
+            }
+        }
+        return -1;
+    }
+}
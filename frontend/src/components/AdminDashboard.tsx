@@ -39,6 +39,7 @@ const AdminDashboard: React.FC = () => {
   const [activeTab, setActiveTab] = useState<'overview' | 'orders' | 'qr'>('overview');
   const [dashData, setDashData] = useState<DashboardData | null>(null);
   const [orders, setOrders] = useState<Order[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [statusFilter, setStatusFilter] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
   const [qrCodes, setQrCodes] = useState<{ [key: number]: string }>({});
@@ -61,11 +62,15 @@ const AdminDashboard: React.FC = () => {
     }
   };
 
-  const fetchOrders = async () => {
+  // History is paged newest first; a cursor continues from the last page loaded
+  const fetchOrders = async (cursor?: string) => {
     try {
-      const url = statusFilter ? `/admin/orders?status=${statusFilter}` : '/admin/orders';
-      const res = await api.get(url);
-      setOrders(res.data);
+      const params: Record<string, string> = {};
+      if (statusFilter) params.status = statusFilter;
+      if (cursor) params.cursor = cursor;
+      const res = await api.get('/admin/orders', { params });
+      setOrders(prev => (cursor ? [...prev, ...res.data] : res.data));
+      setNextCursor(res.headers['x-next-cursor'] ?? null);
     } catch (e) {
       console.error('Failed to fetch orders', e);
     }
@@ -374,6 +379,16 @@ const AdminDashboard: React.FC = () => {
                 </tbody>
               </table>
             </div>
+            {nextCursor && (
+              <div className="text-center py-4">
+                <button
+                  onClick={() => fetchOrders(nextCursor)}
+                  className="px-4 py-2 rounded-xl bg-amber-100 text-amber-800 font-medium hover:bg-amber-200"
+                >
+                  Load more
+                </button>
+              </div>
+            )}
             {orders.length === 0 && (
               <div className="text-center py-16 text-gray-400">
                 <Package size={48} className="mx-auto mb-3 opacity-30" />
@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { motion, AnimatePresence } from 'framer-motion';
 import { CreditCard, Smartphone, X, Loader2, CheckCircle2, Download, Printer } from 'lucide-react';
 import { api } from '../services/api';
@@ -20,6 +20,9 @@ interface CheckoutModalProps {
   customerType: string;
 }
 
+// crypto.randomUUID() is unavailable on plain-http LAN origins (QR table ordering), so build the key by hand
+const newPaymentKey = () => `pay_${Date.now().toString(36)}_${Math.random().toString(36).slice(2)}`;
+
 const CheckoutModal: React.FC<CheckoutModalProps> = ({ isOpen, onClose, onSuccess, totalAmount, cartItems, customerType }) => {
   const [phone, setPhone] = useState('');
   const [cardNumber, setCardNumber] = useState('');
@@ -29,17 +32,27 @@ const CheckoutModal: React.FC<CheckoutModalProps> = ({ isOpen, onClose, onSucces
   const [step, setStep] = useState<'details' | 'processing' | 'success'>('details');
   const [transactionId, setTransactionId] = useState('');
   const [orderId, setOrderId] = useState('');
+  // One key per checkout: a retry after a failed order placement reuses the payment instead of charging twice
+  const paymentKey = useRef(newPaymentKey());
 
   const tax = totalAmount * 0.05;
   const grandTotal = totalAmount + tax;
 
+  // A key is bound to one amount server-side: start a new one whenever the cart or total changes
+  const cartSignature = `${grandTotal}|${cartItems.map(i => `${i.drinkType}x${i.quantity}`).join(',')}`;
+  useEffect(() => {
+    paymentKey.current = newPaymentKey();
+  }, [cartSignature]);
+
   const handleCheckout = async (e: React.FormEvent) => {
     e.preventDefault();
     setStep('processing');
     setLoading(true);
 
     try {
-      const paymentRes = await api.post('/payments/process', { amount: grandTotal });
+      const paymentRes = await api.post('/payments/process', { amount: grandTotal }, {
+        headers: { 'Idempotency-Key': paymentKey.current }
+      });
       setTransactionId(paymentRes.data.transactionId || 'txn_mock');
       
       // Place the order after payment
@@ -51,6 +64,7 @@ const CheckoutModal: React.FC<CheckoutModalProps> = ({ isOpen, onClose, onSucces
       setOrderId(orderRes.data.id || 'unknown');
 
       setStep('success');
+      paymentKey.current = newPaymentKey();
       toast.success('Payment successful! Your order is being prepared.', { icon: '🎉' });
     } catch (error) {
       toast.error('Payment failed. Please try again.');
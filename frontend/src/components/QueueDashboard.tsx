@@ -1,5 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { api } from '../services/api';
+import { connectQueueStream, QueueEvent, WaitAlert } from '../services/queueStream';
 import { motion, AnimatePresence } from 'framer-motion';
 import { CheckCircle, Clock, Users, AlertTriangle, Coffee, Timer, Star, User, Printer } from 'lucide-react';
 import toast from 'react-hot-toast';
@@ -12,13 +13,70 @@ interface Order {
   arrivalTime: string;
   totalPrepTime?: number;
   customerType?: string;
+  assignedBarista?: string;
   regular: boolean;
+  boosted?: boolean;
 }
 
+interface Barista {
+  id: string;
+  name: string;
+  status: string;
+  currentOrder: Order | null;
+}
+
+// Same ordering as the backend's waiting queue: skip-cap boosted first, then score desc, arrival, id
+const byPriority = (a: Order, b: Order): number =>
+  Number(!!b.boosted) - Number(!!a.boosted) ||
+  b.priorityScore - a.priorityScore ||
+  a.arrivalTime.localeCompare(b.arrivalTime) ||
+  (a.id || '').localeCompare(b.id || '');
+
+const applyQueueEvent = (orders: Order[], event: QueueEvent<Order>): Order[] => {
+  switch (event.type) {
+    case 'ORDER_ADDED':
+      if (!event.order) return orders;
+      return [...orders.filter((o) => o.id !== event.order!.id), event.order].sort(byPriority);
+    case 'ORDER_RERANKED': {
+      const scores = event.scores || {};
+      const boosted = event.boosted || [];
+      return orders
+        .map((o) => (o.id && scores[o.id] !== undefined ? { ...o, priorityScore: scores[o.id] } : o))
+        .map((o) => (o.id && boosted.includes(o.id) ? { ...o, boosted: true } : o))
+        .sort(byPriority);
+    }
+    case 'ORDER_ASSIGNED':
+      return orders.filter((o) => o.id !== event.order?.id);
+    case 'ORDER_COMPLETED':
+      return orders.filter((o) => o.id !== event.orderId);
+    default:
+      return orders;
+  }
+};
+
+const applyBaristaEvent = (baristas: Barista[], event: QueueEvent<Order>): Barista[] => {
+  switch (event.type) {
+    case 'ORDER_ASSIGNED': {
+      const order = event.order;
+      if (!order) return baristas;
+      return baristas.map((b) => (b.id === order.assignedBarista ? { ...b, status: 'BUSY', currentOrder: order } : b));
+    }
+    case 'ORDER_COMPLETED':
+      return baristas.map((b) =>
+        b.currentOrder?.id === event.orderId ? { ...b, status: 'IDLE', currentOrder: null } : b);
+    default:
+      return baristas;
+  }
+};
+
 const QueueDashboard: React.FC = () => {
   const [orders, setOrders] = useState<Order[]>([]);
+  const [baristas, setBaristas] = useState<Barista[]>([]);
+  const [alerts, setAlerts] = useState<WaitAlert[]>([]);
   const [loading, setLoading] = useState(true);
   const [countdown, setCountdown] = useState<{ [key: string]: number }>({});
+  // Version of the last applied snapshot/event; -1 until the first snapshot arrives
+  const versionRef = useRef(-1);
   const [calculatedStats, setCalculatedStats] = useState({
     totalOrders: 0,
     avgWaitTime: 0,
@@ -76,7 +134,11 @@ const QueueDashboard: React.FC = () => {
   const fetchQueue = async () => {
     try {
       const response = await api.get('/queue');
-      setOrders(response.data.waitingOrders || []);
+      // The stream snapshot carries skip-cap boosts; don't overwrite it with this slower read
+      if (versionRef.current < 0) {
+        setOrders(response.data.waitingOrders || []);
+        setBaristas(response.data.baristas || []);
+      }
     } catch (error) {
       console.error('Failed to fetch queue:', error);
     } finally {
@@ -84,10 +146,49 @@ const QueueDashboard: React.FC = () => {
     }
   };
 
+  const fetchAlerts = async () => {
+    try {
+      const response = await api.get('/alerts');
+      setAlerts(response.data);
+    } catch (error) {
+      console.error('Failed to fetch alerts:', error);
+    }
+  };
+
   useEffect(() => {
     fetchQueue();
-    const interval = setInterval(fetchQueue, 5000);
-    return () => clearInterval(interval);
+    fetchAlerts();
+    const stream = connectQueueStream<Order>({
+      onSnapshot: (snapshot) => {
+        versionRef.current = snapshot.version;
+        setOrders(snapshot.waitingOrders || []);
+        setBaristas(snapshot.baristas || []);
+        setLoading(false);
+      },
+      onEvent: (event) => {
+        if (versionRef.current < 0 || event.version <= versionRef.current) return;
+        if (event.version > versionRef.current + 1) {
+          // Missed a delta (e.g. across a reconnect): resync from a fresh snapshot
+          versionRef.current = -1;
+          stream.requestSnapshot();
+          return;
+        }
+        versionRef.current = event.version;
+        setOrders((current) => applyQueueEvent(current, event));
+        setBaristas((current) => applyBaristaEvent(current, event));
+      },
+      onAlert: (alert) => {
+        setAlerts((current) => alert.acknowledged
+          ? current.filter((a) => a.id !== alert.id)
+          : [...current.filter((a) => a.id !== alert.id), alert]);
+      },
+      onConnectionChange: (connected) => {
+        if (!connected) versionRef.current = -1;
+        // Alerts raised while disconnected are not replayed
+        else fetchAlerts();
+      },
+    });
+    return () => stream.close();
   }, []);
 
   const completeOrder = async (orderId: string) => {
@@ -101,13 +202,40 @@ const QueueDashboard: React.FC = () => {
           color: '#fff',
         },
       });
-      fetchQueue();
+      // The ORDER_COMPLETED push removes it; only refetch if the stream is down
+      if (versionRef.current < 0) fetchQueue();
     } catch (error) {
       toast.error('Failed to complete order');
       console.error(error);
     }
   };
 
+  const acknowledgeAlert = async (alertId: string) => {
+    try {
+      await api.post(`/alerts/${alertId}/acknowledge`);
+      // The acknowledgement push clears it on every screen, this one included
+      setAlerts((current) => current.filter((a) => a.id !== alertId));
+    } catch (error) {
+      toast.error('Failed to acknowledge alert');
+      console.error(error);
+    }
+  };
+
+  const claimNextOrder = async (baristaId: string) => {
+    try {
+      const response = await api.post(`/baristas/${baristaId}/next`);
+      if (response.status === 204) {
+        toast('No orders waiting', { icon: '☕' });
+        return;
+      }
+      // The ORDER_ASSIGNED push updates the board; only refetch if the stream is down
+      if (versionRef.current < 0) fetchQueue();
+    } catch (error) {
+      toast.error('Failed to claim order');
+      console.error(error);
+    }
+  };
+
   if (loading) {
     return (
       <div className="flex justify-center items-center h-64 text-amber-800">
@@ -176,6 +304,80 @@ const QueueDashboard: React.FC = () => {
         </motion.div>
       </div>
 
+      {alerts.length > 0 && (
+        <div className="space-y-3 mb-10">
+          {alerts.map((alert) => (
+            <div
+              key={alert.id}
+              className={`flex items-center justify-between gap-4 rounded-2xl px-5 py-3 border shadow ${
+                alert.severity === 'CRITICAL'
+                  ? 'bg-red-50 border-red-300 text-red-800'
+                  : 'bg-amber-50 border-amber-300 text-amber-800'
+              }`}
+            >
+              <div className="flex items-center gap-3">
+                <AlertTriangle size={20} />
+                <span className="font-semibold">{alert.message}</span>
+              </div>
+              <button
+                onClick={() => acknowledgeAlert(alert.id)}
+                className="px-4 py-1.5 rounded-xl bg-white border border-current text-sm font-bold hover:bg-gray-50"
+              >
+                Acknowledge
+              </button>
+            </div>
+          ))}
+        </div>
+      )}
+
+      {baristas.length > 0 && (
+        <div className="grid grid-cols-1 md:grid-cols-2 gap-6 mb-10">
+          {baristas.map((barista) => {
+            const current = barista.currentOrder;
+            return (
+              <div
+                key={barista.id}
+                className="bg-white/80 backdrop-blur-xl rounded-2xl p-6 border border-amber-200 shadow-xl shadow-amber-900/5 flex items-center justify-between gap-4"
+              >
+                <div className="flex items-center gap-4">
+                  <div className={`p-3 rounded-xl ${current ? 'bg-orange-100 text-orange-600' : 'bg-green-100 text-green-600'}`}>
+                    <Coffee size={24} />
+                  </div>
+                  <div>
+                    <p className="text-gray-500 font-medium text-sm uppercase tracking-wider">{barista.name}</p>
+                    {current ? (
+                      <p className="font-semibold text-gray-800">
+                        #{current.id ? current.id.substring(0, 8) : 'NEW'} · {current.items.map((i) => `${i.quantity}× ${i.drinkType}`).join(', ')}
+                      </p>
+                    ) : (
+                      <p className="font-semibold text-green-700">Idle</p>
+                    )}
+                  </div>
+                </div>
+                {current ? (
+                  <button
+                    onClick={() => completeOrder(current.id || '')}
+                    className="flex items-center gap-2 px-4 py-2 rounded-xl font-bold text-white bg-gradient-to-r from-green-500 to-emerald-600 shadow-md active:scale-95"
+                  >
+                    <CheckCircle size={18} />
+                    Done
+                  </button>
+                ) : (
+                  <button
+                    onClick={() => claimNextOrder(barista.id)}
+                    disabled={orders.length === 0}
+                    className="flex items-center gap-2 px-4 py-2 rounded-xl font-bold text-white bg-gray-800 hover:bg-gray-900 shadow-md active:scale-95 disabled:opacity-40"
+                  >
+                    <Timer size={18} />
+                    Next Order
+                  </button>
+                )}
+              </div>
+            );
+          })}
+        </div>
+      )}
+
       <div className="space-y-6">
         <div className="flex justify-between items-center mb-6">
           <h3 className="text-2xl font-bold text-gray-800 flex items-center gap-3">
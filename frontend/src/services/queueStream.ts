@@ -0,0 +1,131 @@
+/// <reference types="vite/client" />
+
+// Minimal STOMP 1.2 client over the raw WebSocket transport of the backend's
+// SockJS endpoint. The queue only needs CONNECT/SUBSCRIBE/MESSAGE, so this
+// avoids pulling a full STOMP + SockJS client into the bundle.
+
+export interface QueueEvent<T> {
+  version: number;
+  type: 'ORDER_ADDED' | 'ORDER_RERANKED' | 'ORDER_ASSIGNED' | 'ORDER_COMPLETED';
+  order?: T;
+  orderId?: string;
+  scores?: { [orderId: string]: number };
+  boosted?: string[];
+}
+
+export interface QueueSnapshot<T> {
+  version: number;
+  waitingOrders: T[];
+  baristas?: { id: string; name: string; status: string; currentOrder: T | null }[];
+}
+
+export interface WaitAlert {
+  id: string;
+  type: 'ORDER_DELAYED' | 'ORDER_TIMEOUT';
+  orderId: string;
+  message: string;
+  severity: 'INFO' | 'WARNING' | 'CRITICAL';
+  timestamp: string;
+  acknowledged: boolean;
+}
+
+interface QueueStreamHandlers<T> {
+  onSnapshot: (snapshot: QueueSnapshot<T>) => void;
+  onEvent: (event: QueueEvent<T>) => void;
+  onAlert?: (alert: WaitAlert) => void;
+  onConnectionChange?: (connected: boolean) => void;
+}
+
+export interface QueueStream {
+  requestSnapshot: () => void;
+  close: () => void;
+}
+
+const RECONNECT_DELAY_MS = 2000;
+
+const socketUrl = (): string => {
+  const base = import.meta.env.VITE_API_URL ?? '/api';
+  const url = new URL(`${base.replace(/\/$/, '')}/ws/queue/websocket`, window.location.href);
+  url.protocol = url.protocol === 'https:' ? 'wss:' : 'ws:';
+  return url.toString();
+};
+
+const frame = (command: string, headers: { [key: string]: string }, body = ''): string =>
+  `${command}\n${Object.entries(headers).map(([k, v]) => `${k}:${v}`).join('\n')}\n\n${body}\0`;
+
+export function connectQueueStream<T>(handlers: QueueStreamHandlers<T>): QueueStream {
+  let socket: WebSocket | null = null;
+  let closed = false;
+  let subscriptionId = 0;
+  let reconnectTimer: ReturnType<typeof setTimeout> | undefined;
+
+  const subscribe = (destination: string) => {
+    socket?.send(frame('SUBSCRIBE', { id: `sub-${subscriptionId++}`, destination }));
+  };
+
+  const requestSnapshot = () => {
+    if (socket?.readyState === WebSocket.OPEN) {
+      subscribe('/app/queue/snapshot');
+    }
+  };
+
+  const handleFrame = (raw: string) => {
+    const split = raw.indexOf('\n\n');
+    if (split < 0) return;
+    const [command, ...headerLines] = raw.substring(0, split).split('\n');
+    const body = raw.substring(split + 2);
+
+    if (command === 'CONNECTED') {
+      handlers.onConnectionChange?.(true);
+      // Subscribe to deltas before asking for the snapshot so nothing falls in between
+      subscribe('/topic/queue');
+      if (handlers.onAlert) subscribe('/topic/alerts');
+      requestSnapshot();
+      return;
+    }
+    if (command !== 'MESSAGE') return;
+
+    const destination = headerLines
+      .find((line) => line.startsWith('destination:'))
+      ?.substring('destination:'.length);
+    const payload = JSON.parse(body);
+    if (destination === '/topic/queue') {
+      handlers.onEvent(payload as QueueEvent<T>);
+    } else if (destination === '/topic/alerts') {
+      handlers.onAlert?.(payload as WaitAlert);
+    } else {
+      handlers.onSnapshot(payload as QueueSnapshot<T>);
+    }
+  };
+
+  const connect = () => {
+    socket = new WebSocket(socketUrl());
+    socket.onopen = () => {
+      socket?.send(frame('CONNECT', { 'accept-version': '1.2', host: window.location.hostname, 'heart-beat': '0,0' }));
+    };
+    socket.onmessage = (message) => {
+      String(message.data)
+        .split('\0')
+        .map((raw) => raw.replace(/^\n+/, ''))
+        .filter((raw) => raw.length > 0)
+        .forEach(handleFrame);
+    };
+    socket.onclose = () => {
+      handlers.onConnectionChange?.(false);
+      if (!closed) {
+        reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+      }
+    };
+  };
+
+  connect();
+
+  return {
+    requestSnapshot,
+    close: () => {
+      closed = true;
+      clearTimeout(reconnectTimer);
+      socket?.close();
+    },
+  };
+}